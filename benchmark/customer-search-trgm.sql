@@ -0,0 +1,94 @@
+-- Customer search latency vs. row count, with and without the pg_trgm GIN indexes.
+--
+-- Runs entirely in temp tables, so it is safe against any database the app points at:
+--   psql -h localhost -U root -d springdb -f benchmark/customer-search-trgm.sql
+-- Optional: -v sizes='10000,100000,1000000' -v iterations=50
+--
+-- Each query mirrors a CustomerRepository.searchCustomers substring filter
+-- (ILIKE '%term%' LIMIT 10) with a term that matches a handful of rows.
+-- Output is one NOTICE per (rows, column, indexed) with the mean latency in ms, followed
+-- by the EXPLAIN ANALYZE plan of one name search without and with the indexes.
+
+\set ON_ERROR_STOP on
+\if :{?sizes}
+\else
+\set sizes '10000,100000,1000000'
+\endif
+\if :{?iterations}
+\else
+\set iterations 50
+\endif
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE FUNCTION pg_temp.bench_column(col text, iterations int) RETURNS numeric AS $$
+DECLARE
+    started timestamptz;
+    found bigint;
+    total_rows bigint;
+BEGIN
+    SELECT count(*) INTO total_rows FROM bench_customers;
+    started := clock_timestamp();
+    FOR i IN 1..iterations LOOP
+        EXECUTE format('SELECT count(*) FROM (SELECT id FROM bench_customers WHERE %I ILIKE $1 LIMIT 10) s', col)
+            INTO found
+            USING '%' || lpad(((i * 7919) % total_rows)::text, 7, '0') || '%';
+    END LOOP;
+    RETURN round((extract(epoch FROM clock_timestamp() - started) * 1000 / iterations)::numeric, 3);
+END
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION pg_temp.explain_name(row_count int) RETURNS void AS $$
+DECLARE
+    line text;
+BEGIN
+    FOR line IN EXECUTE 'EXPLAIN (ANALYZE, COSTS OFF) SELECT id FROM bench_customers WHERE name ILIKE $1 LIMIT 10'
+            USING '%' || lpad((row_count / 2)::text, 7, '0') || '%' LOOP
+        RAISE NOTICE '  %', line;
+    END LOOP;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION pg_temp.bench_size(row_count int, iterations int) RETURNS void AS $$
+DECLARE
+    col text;
+BEGIN
+    DROP TABLE IF EXISTS bench_customers;
+    CREATE TEMP TABLE bench_customers (
+        id bigint PRIMARY KEY,
+        name text,
+        customer_email text,
+        customer_phone_number text,
+        address text
+    );
+    INSERT INTO bench_customers
+    SELECT g,
+           'Customer ' || lpad(g::text, 7, '0'),
+           'user' || lpad(g::text, 7, '0') || '@example.com',
+           '+1-555-' || lpad(g::text, 7, '0'),
+           lpad(g::text, 7, '0') || ' Main Street, Springfield'
+    FROM generate_series(0, row_count - 1) g;
+    ANALYZE bench_customers;
+
+    FOREACH col IN ARRAY ARRAY['name', 'customer_email', 'customer_phone_number', 'address'] LOOP
+        RAISE NOTICE 'rows=% column=% indexed=false mean_ms=%', row_count, col, pg_temp.bench_column(col, iterations);
+    END LOOP;
+    RAISE NOTICE 'rows=% indexed=false plan:', row_count;
+    PERFORM pg_temp.explain_name(row_count);
+
+    CREATE INDEX ON bench_customers USING gin (name gin_trgm_ops);
+    CREATE INDEX ON bench_customers USING gin (customer_email gin_trgm_ops);
+    CREATE INDEX ON bench_customers USING gin (customer_phone_number gin_trgm_ops);
+    CREATE INDEX ON bench_customers USING gin (address gin_trgm_ops);
+    ANALYZE bench_customers;
+
+    FOREACH col IN ARRAY ARRAY['name', 'customer_email', 'customer_phone_number', 'address'] LOOP
+        RAISE NOTICE 'rows=% column=% indexed=true mean_ms=%', row_count, col, pg_temp.bench_column(col, iterations);
+    END LOOP;
+    RAISE NOTICE 'rows=% indexed=true plan:', row_count;
+    PERFORM pg_temp.explain_name(row_count);
+END
+$$ LANGUAGE plpgsql;
+
+SELECT pg_temp.bench_size(size::int, :iterations)
+FROM unnest(string_to_array(:'sizes', ',')) AS size;
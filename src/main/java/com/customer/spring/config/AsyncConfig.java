@@ -1,22 +1,36 @@
 package com.customer.spring.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
+import java.time.Duration;
 import java.util.concurrent.Executor;
 
 @Configuration
 public class AsyncConfig {
 
     @Bean(name = "asyncExecutor")
-    public Executor asyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(500);
+    public Executor asyncExecutor(Environment environment, MeterRegistry meterRegistry,
+                                  @Value("${async.executor.core-size:5}") int coreSize,
+                                  @Value("${async.executor.max-size:10}") int maxSize,
+                                  @Value("${async.executor.queue-capacity:500}") int queueCapacity,
+                                  @Value("${async.executor.saturation-policy:caller-runs}") InstrumentedTaskExecutor.SaturationPolicy saturationPolicy,
+                                  @Value("${async.executor.block-timeout:PT1S}") Duration blockTimeout,
+                                  @Value("${async.executor.task-timeout:PT30S}") Duration taskTimeout) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // A virtual thread per task: blocking is cheap, so there is no pool or queue to size.
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("Async-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        InstrumentedTaskExecutor executor = new InstrumentedTaskExecutor(coreSize, maxSize, queueCapacity,
+                saturationPolicy, blockTimeout, taskTimeout, meterRegistry);
         executor.setThreadNamePrefix("Async-");
-        executor.initialize();
         return executor;
     }
 }
@@ -0,0 +1,42 @@
+package com.customer.spring.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class DataSourceConfig {
+
+    // Wraps the pool rather than replacing the auto-configured one, so Hikari stays configured
+    // through spring.datasource.hikari.* and the limit can be switched on with virtual threads.
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${datasource.connection-limit.enabled:false}") boolean enabled,
+            @Value("${datasource.connection-limit.permits:0}") int permits,
+            @Value("${datasource.connection-limit.max-waiting:1000}") int maxWaiting,
+            @Value("${datasource.connection-limit.acquire-timeout:PT5S}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                int limit = permits > 0 ? permits : poolSize(dataSource);
+                return new ConnectionLimitingDataSource(dataSource, limit, maxWaiting, acquireTimeout);
+            }
+        };
+    }
+
+    // Hikari reports -1 until the pool has started, which means its default of 10.
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0) {
+            return hikari.getMaximumPoolSize();
+        }
+        return 10;
+    }
+}
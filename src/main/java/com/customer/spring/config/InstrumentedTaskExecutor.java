@@ -0,0 +1,227 @@
+package com.customer.spring.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread pool executor that records how long tasks wait in the queue and how long they run,
+ * and lets the owner choose what happens once the pool and the queue are both full:
+ * <ul>
+ *     <li>{@link SaturationPolicy#CALLER_RUNS} runs the task on the submitting thread, which slows
+ *     the producer down to the pool's pace;</li>
+ *     <li>{@link SaturationPolicy#SHED} rejects the task right away and counts it;</li>
+ *     <li>{@link SaturationPolicy#BLOCK} waits up to the block timeout for a queue slot, then
+ *     rejects.</li>
+ * </ul>
+ * Rejections surface as {@link org.springframework.core.task.TaskRejectedException}. A task that
+ * runs past the task timeout on a pool thread has its thread interrupted; tasks that ignore
+ * interrupts are still counted as timed out. Tasks run on the caller are never interrupted, since
+ * the caller may be a request thread with work of its own after the task.
+ * <p>
+ * Queue wait and run time are recorded in the {@code async.executor.queue.wait} and
+ * {@code async.executor.run} timers.
+ */
+public class InstrumentedTaskExecutor extends ThreadPoolTaskExecutor {
+
+    public enum SaturationPolicy {
+        CALLER_RUNS, SHED, BLOCK
+    }
+
+    private final int queueCapacity;
+    private final SaturationPolicy saturationPolicy;
+    private final long blockTimeoutNanos;
+    private final long taskTimeoutNanos;
+    private final ScheduledThreadPoolExecutor timeoutScheduler;
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder taskCount = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+    private final Timer waitTimer;
+    private final Timer runTimer;
+
+    public InstrumentedTaskExecutor(int corePoolSize, int maxPoolSize, int queueCapacity,
+                                    SaturationPolicy saturationPolicy, Duration blockTimeout, Duration taskTimeout,
+                                    MeterRegistry meterRegistry) {
+        this.queueCapacity = queueCapacity;
+        this.saturationPolicy = saturationPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.taskTimeoutNanos = taskTimeout.toNanos();
+        this.waitTimer = Timer.builder("async.executor.queue.wait").register(meterRegistry);
+        this.runTimer = Timer.builder("async.executor.run").register(meterRegistry);
+        setCorePoolSize(corePoolSize);
+        setMaxPoolSize(Math.max(corePoolSize, maxPoolSize));
+        setQueueCapacity(queueCapacity);
+        setRejectedExecutionHandler(rejectionHandler());
+        setTaskDecorator(this::instrument);
+
+        if (taskTimeoutNanos > 0) {
+            timeoutScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "AsyncTaskTimeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timeoutScheduler.setRemoveOnCancelPolicy(true);
+        } else {
+            timeoutScheduler = null;
+        }
+    }
+
+    private Runnable instrument(Runnable task) {
+        return new InstrumentedTask(task, System.nanoTime());
+    }
+
+    private RejectedExecutionHandler rejectionHandler() {
+        return (task, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Executor " + executor + " is shut down");
+            }
+            switch (saturationPolicy) {
+                case CALLER_RUNS -> {
+                    callerRuns.increment();
+                    if (task instanceof InstrumentedTask instrumented) {
+                        instrumented.runOnCaller();
+                    } else {
+                        task.run();
+                    }
+                }
+                case BLOCK -> {
+                    try {
+                        if (executor.getQueue().offer(task, blockTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                            return;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    shed.increment();
+                    throw new RejectedExecutionException("No queue slot freed up within the block timeout");
+                }
+                default -> {
+                    shed.increment();
+                    throw new RejectedExecutionException("Async executor is saturated");
+                }
+            }
+        };
+    }
+
+    public Map<String, Object> stats() {
+        long count = taskCount.sum();
+        ThreadPoolExecutor executor = getThreadPoolExecutor();
+        Map<String, Object> response = new HashMap<>();
+        response.put("saturation_policy", saturationPolicy.name().toLowerCase(Locale.ROOT).replace('_', '-'));
+        response.put("core_size", executor.getCorePoolSize());
+        response.put("max_size", executor.getMaximumPoolSize());
+        response.put("pool_size", executor.getPoolSize());
+        response.put("active", executor.getActiveCount());
+        response.put("queue_depth", executor.getQueue().size());
+        response.put("queue_capacity", queueCapacity);
+        response.put("completed_count", count);
+        response.put("shed_count", shed.sum());
+        response.put("caller_runs_count", callerRuns.sum());
+        response.put("timed_out_count", timedOut.sum());
+        response.put("queue_wait_mean_ms", count == 0 ? 0.0 : waitNanos.sum() / 1_000_000.0 / count);
+        response.put("queue_wait_max_ms", maxWaitNanos.get() / 1_000_000.0);
+        response.put("run_mean_ms", count == 0 ? 0.0 : runNanos.sum() / 1_000_000.0 / count);
+        response.put("run_max_ms", maxRunNanos.get() / 1_000_000.0);
+        return response;
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        if (timeoutScheduler != null) {
+            timeoutScheduler.shutdownNow();
+        }
+    }
+
+    private final class InstrumentedTask implements Runnable {
+        private final Runnable task;
+        private final long submittedAt;
+
+        private InstrumentedTask(Runnable task, long submittedAt) {
+            this.task = task;
+            this.submittedAt = submittedAt;
+        }
+
+        @Override
+        public void run() {
+            run(taskTimeoutNanos > 0);
+        }
+
+        private void runOnCaller() {
+            run(false);
+        }
+
+        private void run(boolean withTimeout) {
+            long startedAt = System.nanoTime();
+            long waited = startedAt - submittedAt;
+            waitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            waitTimer.record(waited, TimeUnit.NANOSECONDS);
+            Deadline deadline = withTimeout ? new Deadline(Thread.currentThread()) : null;
+            ScheduledFuture<?> timeout = deadline == null
+                    ? null
+                    : timeoutScheduler.schedule(deadline::expire, taskTimeoutNanos, TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } finally {
+                if (deadline != null) {
+                    timeout.cancel(false);
+                    if (deadline.finish()) {
+                        timedOut.increment();
+                        // Do not hand the timeout interrupt on to the next task on this thread.
+                        Thread.interrupted();
+                    }
+                }
+                long elapsed = System.nanoTime() - startedAt;
+                taskCount.increment();
+                runNanos.add(elapsed);
+                maxRunNanos.accumulateAndGet(elapsed, Math::max);
+                runTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Guards the timeout interrupt so it can only hit the thread while the task it was scheduled
+     * for is still running.
+     */
+    private static final class Deadline {
+        private final Thread thread;
+        private boolean finished;
+        private boolean expired;
+
+        private Deadline(Thread thread) {
+            this.thread = thread;
+        }
+
+        private synchronized void expire() {
+            if (!finished) {
+                expired = true;
+                thread.interrupt();
+            }
+        }
+
+        private synchronized boolean finish() {
+            finished = true;
+            return expired;
+        }
+    }
+}
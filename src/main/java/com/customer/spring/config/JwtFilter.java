@@ -1,13 +1,21 @@
 package com.customer.spring.config;
 
+import com.customer.spring.entity.UserPrincipal;
+import com.customer.spring.entity.Users;
 import com.customer.spring.service.JWTService;
 import com.customer.spring.service.MyUserDetailsService;
+import com.customer.spring.service.TokenRevocationList;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,41 +23,75 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
 
     private final JWTService jwtService;
+    private final TokenRevocationList tokenRevocationList;
     private final ApplicationContext context;
+    private final boolean statelessPrincipal;
+    // Only the filter's own work, not the rest of the chain; outcome is none, authenticated or rejected.
+    private final Meter.MeterProvider<Timer> filterTimer;
 
-    public JwtFilter(JWTService jwtService, ApplicationContext context) {
+    public JwtFilter(JWTService jwtService, TokenRevocationList tokenRevocationList, ApplicationContext context,
+                     @Value("${jwt.stateless-principal:true}") boolean statelessPrincipal,
+                     MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
+        this.tokenRevocationList = tokenRevocationList;
         this.context = context;
+        this.statelessPrincipal = statelessPrincipal;
+        this.filterTimer = Timer.builder("jwt.filter").withRegistry(meterRegistry);
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
+        long startedAt = System.nanoTime();
+        String outcome = "rejected";
+        try {
+            outcome = authenticate(request);
+        } finally {
+            filterTimer.withTags("outcome", outcome).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        filterChain.doFilter(request, response);
+    }
 
-        if(authHeader !=null && authHeader.startsWith("Bearer")){
-            token = authHeader.substring(7);
-            username = jwtService.extraceUserName(token);
+    private String authenticate(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if(authHeader ==null || !authHeader.startsWith("Bearer")){
+            return "none";
         }
 
+        JWTService.VerifiedToken token = jwtService.verify(authHeader.substring(7));
+        String username = tokenRevocationList.isRevoked(token) ? null : token.username();
+
         if(username != null && SecurityContextHolder.getContext().getAuthentication() == null){
-            UserDetails userDetails = context.getBean(MyUserDetailsService.class).loadUserByUsername(username);
+            // Stateless mode trusts the signed claims instead of re-reading the users table per request.
+            UserDetails userDetails = statelessPrincipal && token.authorities() != null
+                    ? principalFromClaims(token)
+                    : context.getBean(MyUserDetailsService.class).loadUserByUsername(username);
 
             if(jwtService.validateToken(token, userDetails)){
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                return "authenticated";
             }
 
         }
-        filterChain.doFilter(request, response);
+        return "rejected";
+    }
+
+    private UserDetails principalFromClaims(JWTService.VerifiedToken token) {
+        Users user = new Users();
+        user.setUsername(token.username());
+        List<SimpleGrantedAuthority> authorities = token.authorities().stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        return new UserPrincipal(user, authorities);
     }
 }
@@ -0,0 +1,77 @@
+package com.customer.spring.config;
+
+import com.customer.spring.service.CustomerService;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.Map;
+
+@Configuration
+public class KafkaConfig {
+
+    // Compaction keeps the latest event per customer id, so the topic doubles as a mirror of the table.
+    @Bean
+    public NewTopic customerEventsTopic(@Value("${customer.events.partitions:6}") int partitions,
+                                        @Value("${customer.events.replicas:1}") short replicas) {
+        return TopicBuilder.name(CustomerService.CUSTOMER_EVENTS_TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .build();
+    }
+
+    // Declaring the binary producer switches off Boot's producer factory and template, so the
+    // String pair is declared here too, built from spring.kafka.producer.* the same way.
+    @Bean
+    public DefaultKafkaProducerFactory<String, String> kafkaProducerFactory(KafkaProperties kafkaProperties,
+                                                                            ObjectProvider<DefaultKafkaProducerFactoryCustomizer> customizers,
+                                                                            ObjectProvider<SslBundles> sslBundles) {
+        DefaultKafkaProducerFactory<String, String> factory =
+                new DefaultKafkaProducerFactory<>(kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable()));
+        customizers.orderedStream().forEach(customizer -> customizer.customize(factory));
+        return factory;
+    }
+
+    // Same configuration and listeners with a byte array value serializer. As a bean it is closed,
+    // and its buffered records flushed, when the context shuts down.
+    @Bean
+    @SuppressWarnings("unchecked")
+    public ProducerFactory<String, byte[]> binaryProducerFactory(DefaultKafkaProducerFactory<String, String> kafkaProducerFactory) {
+        return (ProducerFactory<String, byte[]>) (ProducerFactory<?, ?>) kafkaProducerFactory.copyWithConfigurationOverride(
+                Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class));
+    }
+
+    @Bean
+    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> kafkaProducerFactory,
+                                                       KafkaProperties kafkaProperties) {
+        return template(kafkaProducerFactory, kafkaProperties);
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> binaryKafkaTemplate(ProducerFactory<String, byte[]> binaryProducerFactory,
+                                                             KafkaProperties kafkaProperties) {
+        return template(binaryProducerFactory, kafkaProperties);
+    }
+
+    private static <V> KafkaTemplate<String, V> template(ProducerFactory<String, V> producerFactory,
+                                                         KafkaProperties kafkaProperties) {
+        KafkaTemplate<String, V> template = new KafkaTemplate<>(producerFactory);
+        template.setObservationEnabled(kafkaProperties.getTemplate().isObservationEnabled());
+        if (kafkaProperties.getTemplate().getDefaultTopic() != null) {
+            template.setDefaultTopic(kafkaProperties.getTemplate().getDefaultTopic());
+        }
+        return template;
+    }
+}
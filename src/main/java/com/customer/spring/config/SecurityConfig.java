@@ -1,21 +1,43 @@
 package com.customer.spring.config;
 
 
+import com.customer.spring.service.BasicCredentialCache;
+import com.customer.spring.service.PasswordHashingExecutor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.Customizer;
+import org.springframework.security.config.ObjectPostProcessor;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationConverter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationConverter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -31,24 +53,91 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        return http.csrf(AbstractHttpConfigurer::disable)
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   AuthenticationProvider authenticationProvider,
+                                                   BasicCredentialCache basicCredentialCache,
+                                                   @Value("${security.basic-auth.enabled:true}") boolean basicAuthEnabled,
+                                                   @Value("${security.basic-auth.disabled-paths:}") String[] basicAuthDisabledPaths,
+                                                   @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver)
+            throws Exception {
+        http.csrf(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(request -> request
-                        .requestMatchers("/register", "/login")
+                        .requestMatchers("/register", "/login", "/token/refresh", "/.well-known/jwks.json", "/actuator/health", "/error")
                         .permitAll()
+                        // Re-publishes every customer, so it is limited to operators.
+                        .requestMatchers(HttpMethod.POST, "/kafka/customer-events/snapshot").hasAuthority("ADMIN")
                         .anyRequest().authenticated())
-                .httpBasic(Customizer.withDefaults())
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
-                .build();
+                .addFilterBefore(new ServiceOverloadedFilter(handlerExceptionResolver), BasicAuthenticationFilter.class);
+
+        if (basicAuthEnabled) {
+            // Only this chain's Basic filter uses the caching manager; /login keeps the plain provider.
+            http.httpBasic(basic -> basic.withObjectPostProcessor(new ObjectPostProcessor<BasicAuthenticationFilter>() {
+                        @Override
+                        public <O extends BasicAuthenticationFilter> O postProcess(O filter) {
+                            filter.setAuthenticationConverter(basicAuthenticationConverter(basicAuthDisabledPaths));
+                            return filter;
+                        }
+                    }))
+                    .authenticationManager(new ProviderManager(basicCredentialCache.caching(authenticationProvider)));
+        }
+        return http.build();
+    }
+
+    /**
+     * Ignores Basic credentials on {@code disabledPaths}, so those endpoints never pay a password
+     * hash for them and only accept a bearer token, or no authentication where permitted.
+     */
+    static AuthenticationConverter basicAuthenticationConverter(String[] disabledPaths) {
+        BasicAuthenticationConverter converter = new BasicAuthenticationConverter();
+        List<RequestMatcher> matchers = Arrays.stream(disabledPaths)
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .<RequestMatcher>map(AntPathRequestMatcher::antMatcher)
+                .toList();
+        if (matchers.isEmpty()) {
+            return converter;
+        }
+        RequestMatcher disabled = new OrRequestMatcher(matchers);
+        return request -> disabled.matches(request) ? null : converter.convert(request);
+    }
+
+    /**
+     * Encodes new hashes with {@code password-encoder.id} and still matches every supported
+     * format, including the unprefixed BCrypt hashes stored before the delegating encoder.
+     * Hashes whose format or parameters are older than the configured ones report
+     * {@code upgradeEncoding}, which makes the provider rehash them on the next login.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor,
+                                           @Value("${password-encoder.id:bcrypt}") String encodingId,
+                                           @Value("${password-encoder.bcrypt.strength:12}") int bcryptStrength,
+                                           @Value("${password-encoder.argon2.salt-length:16}") int argon2SaltLength,
+                                           @Value("${password-encoder.argon2.hash-length:32}") int argon2HashLength,
+                                           @Value("${password-encoder.argon2.parallelism:1}") int argon2Parallelism,
+                                           @Value("${password-encoder.argon2.memory-kib:19456}") int argon2MemoryKib,
+                                           @Value("${password-encoder.argon2.iterations:2}") int argon2Iterations) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", new Argon2PasswordEncoder(argon2SaltLength, argon2HashLength,
+                argon2Parallelism, argon2MemoryKib, argon2Iterations));
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encodingId, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordHashingExecutor.bounded(delegating);
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider(){
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder,
+                                                         UserDetailsPasswordService userDetailsPasswordService){
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setPasswordEncoder(new BCryptPasswordEncoder(12));
+        provider.setPasswordEncoder(passwordEncoder);
         provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
         return provider;
     }
 
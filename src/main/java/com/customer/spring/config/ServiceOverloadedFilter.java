@@ -0,0 +1,38 @@
+package com.customer.spring.config;
+
+import com.customer.spring.exception.ServiceOverloadedException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+/**
+ * Passes a {@link ServiceOverloadedException} thrown further down the security chain to the MVC
+ * exception handlers. The Basic filter hashes passwords on the bounded pool and can throw it
+ * before any controller runs, so without this filter the client would get a 500. With it, the
+ * client gets the same 503 with Retry-After as a controller would return.
+ */
+public class ServiceOverloadedFilter extends OncePerRequestFilter {
+
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public ServiceOverloadedFilter(HandlerExceptionResolver handlerExceptionResolver) {
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServiceOverloadedException e) {
+            if (response.isCommitted() || handlerExceptionResolver.resolveException(request, response, null, e) == null) {
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.customer.spring.controller;
+
+import com.customer.spring.config.InstrumentedTaskExecutor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+@RestController
+@RequestMapping("/async")
+public class AsyncController {
+
+    private final Executor asyncExecutor;
+
+    public AsyncController(@Qualifier("asyncExecutor") Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> asyncStats() {
+        if (asyncExecutor instanceof InstrumentedTaskExecutor instrumented) {
+            return ResponseEntity.status(HttpStatus.OK).body(instrumented.stats());
+        }
+        // Virtual threads: one thread per task, so there is no pool or queue to report on.
+        return ResponseEntity.status(HttpStatus.OK).body(Map.of("threads", "virtual"));
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -35,6 +36,28 @@ public class CustomerController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> createCustomers(@RequestBody List<CustomerDTO> customerDTOs) {
+        Map<String, Object> response = customerService.createCustomers(customerDTOs);
+        // 201 when every row was created, 207 when only some were, 400 when none were.
+        long created = (long) response.get("created");
+        long failed = (long) response.get("failed");
+        HttpStatus status = failed == 0 ? HttpStatus.CREATED
+                : created > 0 ? HttpStatus.MULTI_STATUS
+                : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity<CustomerDTO> getCustomer(@PathVariable long id) {
+        return ResponseEntity.ok(customerService.getCustomer(id));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> customerCacheStats() {
+        return ResponseEntity.ok(customerService.customerCacheStats());
+    }
+
     @PutMapping("{id}")
     public ResponseEntity<CustomerDTO> updateCustomer(@PathVariable long id, @RequestBody CustomerDTO customerDTO){
         return ResponseEntity.ok(customerService.updateCustomer(id, customerDTO));
@@ -56,13 +79,28 @@ public class CustomerController {
     public ResponseEntity<Map<String, Object>> searchCustomers(
             CustomerSearchCriteria criteria,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int limit
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(name = "include_total", defaultValue = "true") boolean includeTotal
     )
     {
-        Map<String, Object> response = customerService.searchCustomers(criteria, page, limit);
+        // Any cursor parameter (an empty one starts from the beginning) selects keyset paging.
+        Map<String, Object> response;
+        if (cursor != null) {
+            response = customerService.searchCustomersAfter(criteria, cursor, limit);
+        } else if (!includeTotal) {
+            response = customerService.searchCustomerSlice(criteria, page, limit);
+        } else {
+            response = customerService.searchCustomers(criteria, page, limit);
+        }
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/search/count")
+    public ResponseEntity<Map<String, Object>> countCustomers(CustomerSearchCriteria criteria) {
+        return ResponseEntity.ok(customerService.countCustomers(criteria));
+    }
+
 
 
 
@@ -0,0 +1,27 @@
+package com.customer.spring.controller;
+
+import com.customer.spring.service.JwtKeyRing;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    public JwksController(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("keys", keyRing.publicJwks());
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+}
@@ -0,0 +1,47 @@
+package com.customer.spring.controller;
+
+import com.customer.spring.service.CustomerEventSnapshot;
+import com.customer.spring.service.KafkaProducerService;
+import com.customer.spring.service.OutboxRelay;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/kafka")
+public class KafkaController {
+
+    private final KafkaProducerService kafkaProducerService;
+    private final OutboxRelay outboxRelay;
+    private final CustomerEventSnapshot customerEventSnapshot;
+
+    public KafkaController(KafkaProducerService kafkaProducerService, OutboxRelay outboxRelay,
+                           CustomerEventSnapshot customerEventSnapshot) {
+        this.kafkaProducerService = kafkaProducerService;
+        this.outboxRelay = outboxRelay;
+        this.customerEventSnapshot = customerEventSnapshot;
+    }
+
+    @GetMapping("/producer/stats")
+    public ResponseEntity<Map<String, Object>> producerStats() {
+        return ResponseEntity.status(HttpStatus.OK).body(kafkaProducerService.stats());
+    }
+
+    @GetMapping("/outbox/stats")
+    public ResponseEntity<Map<String, Object>> outboxStats() {
+        return ResponseEntity.status(HttpStatus.OK).body(outboxRelay.stats());
+    }
+
+    @PostMapping("/customer-events/snapshot")
+    public ResponseEntity<Map<String, Object>> customerEventSnapshot() {
+        if (customerEventSnapshot.startInBackground()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("status", "started"));
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("status", "already running"));
+    }
+}
@@ -1,11 +1,14 @@
 package com.customer.spring.controller;
 
 import com.customer.spring.entity.Users;
+import com.customer.spring.service.PasswordHashingExecutor;
+import com.customer.spring.service.RefreshTokenService;
 import com.customer.spring.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,9 +17,14 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final RefreshTokenService refreshTokenService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, RefreshTokenService refreshTokenService,
+                          PasswordHashingExecutor passwordHashingExecutor) {
         this.userService = userService;
+        this.refreshTokenService = refreshTokenService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
     }
 
     @PostMapping("/register")
@@ -37,6 +45,40 @@ public class UserController {
         response.put("user", user.getUsername());
         response.put("message", "Login successful");
         response.put("token", token);
+        response.put("refresh_token", refreshTokenService.issue(user.getUsername()));
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
+
+    @PostMapping("/token/refresh")
+    public ResponseEntity<Map<String, Object>> refresh(@RequestBody Map<String, String> request) {
+        RefreshTokenService.TokenPair tokens = refreshTokenService.refresh(request.get("refresh_token"));
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Token refreshed");
+        response.put("token", tokens.accessToken());
+        response.put("refresh_token", tokens.refreshToken());
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                                      @RequestBody(required = false) Map<String, String> request,
+                                                      Principal principal) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        userService.logout(principal.getName(), accessToken, request == null ? null : request.get("refresh_token"));
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Logout successful");
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
+    @PostMapping("/token/revoke")
+    public ResponseEntity<Map<String, Object>> revoke(@RequestBody Map<String, String> request, Principal principal) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("revoked", userService.revoke(principal.getName(), request.get("token")));
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
+    @GetMapping("/password-hashing/stats")
+    public ResponseEntity<Map<String, Object>> passwordHashingStats() {
+        return ResponseEntity.status(HttpStatus.OK).body(passwordHashingExecutor.stats());
+    }
 }
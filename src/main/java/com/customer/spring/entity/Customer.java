@@ -4,12 +4,25 @@ import jakarta.persistence.*;
 import lombok.Data;
 
 @Entity
-@Table(name = "customers")
+@Table(name = "customers", uniqueConstraints = {
+        @UniqueConstraint(name = Customer.EMAIL_CONSTRAINT, columnNames = "customer_email"),
+        @UniqueConstraint(name = Customer.PHONE_NUMBER_CONSTRAINT, columnNames = "customer_phone_number")
+}, indexes = {
+        @Index(name = "idx_customers_industry", columnList = "industry"),
+        @Index(name = "idx_customers_company_size", columnList = "company_size"),
+        @Index(name = "idx_customers_status", columnList = "status")
+})
 @Data
 public class Customer {
 
+    public static final String EMAIL_CONSTRAINT = "uk_customers_customer_email";
+    public static final String PHONE_NUMBER_CONSTRAINT = "uk_customers_customer_phone_number";
+
+    // Pooled sequence ids let Hibernate assign ids without a round trip per row,
+    // which is what makes JDBC insert batching possible (IDENTITY disables it).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+    @SequenceGenerator(name = "customers_seq", sequenceName = "customers_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -20,4 +33,8 @@ public class Customer {
     private String address;
     private String status;
     private String otherCustomerData;
-}
\ No newline at end of file
+
+    // Bumped on every update; carried in customer events so replicas can tell newer state from older.
+    @Version
+    private Long version;
+}
@@ -0,0 +1,32 @@
+package com.customer.spring.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    // One sequence call per event: pooled blocks would hand each replica its own id range, so a later
+    // change could get a lower id than an earlier one. The relay sends in id order, and an event is
+    // appended only after its customer row is written and locked, so ids follow commit order per key.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String eventKey;
+
+    // Binary so compact encodings such as customer events are stored as produced; JSON events are UTF-8.
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,37 @@
+package com.customer.spring.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@Table(name = "refresh_tokens",
+        indexes = {
+                @Index(name = "idx_refresh_tokens_family_id", columnList = "familyId"),
+                // Serves the per-user purge of expired tokens that runs on every login.
+                @Index(name = "idx_refresh_tokens_username_expires_at", columnList = "username, expiresAt")
+        })
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Only the SHA-256 of the opaque token is stored, so a leaked table cannot be replayed.
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private String username;
+
+    // Every token rotated from the same login shares a family, so reuse can revoke the whole chain.
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    private boolean revoked;
+}
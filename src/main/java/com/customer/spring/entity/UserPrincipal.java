@@ -9,14 +9,20 @@ import java.util.Collections;
 
 public class UserPrincipal implements UserDetails {
     private final transient Users user;
+    private final Collection<? extends GrantedAuthority> authorities;
 
     public UserPrincipal(Users user) {
+        this(user, Collections.singleton(new SimpleGrantedAuthority("USER")));
+    }
+
+    public UserPrincipal(Users user, Collection<? extends GrantedAuthority> authorities) {
         this.user = user;
+        this.authorities = authorities;
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singleton(new SimpleGrantedAuthority("USER"));
+        return authorities;
     }
 
     @Override
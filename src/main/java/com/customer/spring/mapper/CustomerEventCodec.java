@@ -0,0 +1,125 @@
+package com.customer.spring.mapper;
+
+import com.customer.spring.dto.CustomerDTO;
+import com.customer.spring.entity.Customer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Binary encoding of customer change events, the value format of the customer events topic.
+ * <p>
+ * Layout (schema version 1): schema version byte, event type byte, occurred-at epoch millis as
+ * 8 big-endian bytes, id as an unsigned varint, company size as an unsigned varint, then name,
+ * industry, email, phone number, address, status and other data as strings. A string is a varint
+ * of its UTF-8 length plus one followed by the bytes; 0 means null. Version 2 appends the
+ * customer's row version as an unsigned varint; version 1 records decode with row version 0.
+ * <p>
+ * Later versions may only append fields, so a reader of version 1 decodes any newer record by
+ * ignoring what follows the fields it knows.
+ */
+public final class CustomerEventCodec {
+
+    public static final byte SCHEMA_VERSION = 2;
+
+    public enum Type {
+        CREATED, UPDATED, STATUS_CHANGED, SNAPSHOT;
+
+        private static final Type[] VALUES = values();
+    }
+
+    public record CustomerEvent(int schemaVersion, Type type, Instant occurredAt, long version, CustomerDTO customer) {
+    }
+
+    private CustomerEventCodec() {
+    }
+
+    public static byte[] encode(Type type, Instant occurredAt, Customer customer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        out.write(SCHEMA_VERSION);
+        out.write(type.ordinal());
+        long millis = occurredAt.toEpochMilli();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (millis >>> shift));
+        }
+        writeVarLong(out, customer.getId());
+        writeVarLong(out, customer.getCompanySize());
+        writeString(out, customer.getName());
+        writeString(out, customer.getIndustry());
+        writeString(out, customer.getCustomerEmail());
+        writeString(out, customer.getCustomerPhoneNumber());
+        writeString(out, customer.getAddress());
+        writeString(out, customer.getStatus());
+        writeString(out, customer.getOtherCustomerData());
+        writeVarLong(out, customer.getVersion() == null ? 0 : customer.getVersion());
+        return out.toByteArray();
+    }
+
+    public static CustomerEvent decode(byte[] record) {
+        ByteBuffer in = ByteBuffer.wrap(record);
+        int version = in.get();
+        if (version < 1) {
+            throw new IllegalArgumentException("Unsupported customer event schema version: " + version);
+        }
+        int typeCode = in.get();
+        if (typeCode < 0 || typeCode >= Type.VALUES.length) {
+            throw new IllegalArgumentException("Unknown customer event type: " + typeCode);
+        }
+        Instant occurredAt = Instant.ofEpochMilli(in.getLong());
+
+        CustomerDTO customer = new CustomerDTO();
+        customer.setId(readVarLong(in));
+        customer.setCompanySize((int) readVarLong(in));
+        customer.setName(readString(in));
+        customer.setIndustry(readString(in));
+        customer.setCustomerEmail(readString(in));
+        customer.setCustomerPhoneNumber(readString(in));
+        customer.setAddress(readString(in));
+        customer.setStatus(readString(in));
+        customer.setOtherCustomerData(readString(in));
+        long rowVersion = version >= 2 ? readVarLong(in) : 0;
+        return new CustomerEvent(version, Type.VALUES[typeCode], occurredAt, rowVersion, customer);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in customer event");
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
@@ -3,6 +3,7 @@ package com.customer.spring.mapper;
 import com.customer.spring.dto.CustomerDTO;
 import com.customer.spring.entity.Customer;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper(componentModel = "spring")
@@ -12,5 +13,6 @@ public interface CustomerMapper {
 
     CustomerDTO toDto(Customer customer);
 
+    @Mapping(target = "version", ignore = true)
     Customer toEntity(CustomerDTO dto);
 }
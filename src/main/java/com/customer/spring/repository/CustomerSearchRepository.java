@@ -0,0 +1,20 @@
+package com.customer.spring.repository;
+
+import com.customer.spring.entity.Customer;
+import com.customer.spring.entity.CustomerSearchCriteria;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+public interface CustomerSearchRepository {
+
+    Page<Customer> searchCustomers(CustomerSearchCriteria criteria, Pageable pageable);
+
+    Slice<Customer> searchCustomerSlice(CustomerSearchCriteria criteria, Pageable pageable);
+
+    long countCustomers(CustomerSearchCriteria criteria);
+
+    List<Customer> searchCustomersAfter(CustomerSearchCriteria criteria, long lastId, Pageable pageable);
+}
@@ -0,0 +1,128 @@
+package com.customer.spring.repository;
+
+import com.customer.spring.entity.Customer;
+import com.customer.spring.entity.CustomerSearchCriteria;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the customer search from only the criteria that were supplied, so each
+ * combination of filters becomes its own small statement the planner can index,
+ * instead of one catch-all "(:x IS NULL OR ...)" query with a single generic plan.
+ * Each statement is timed in {@code customer.search.query}, tagged with the query kind.
+ */
+public class CustomerSearchRepositoryImpl implements CustomerSearchRepository {
+
+    private final EntityManager entityManager;
+    private final Meter.MeterProvider<Timer> queryTimer;
+
+    public CustomerSearchRepositoryImpl(EntityManager entityManager, MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.queryTimer = Timer.builder("customer.search.query").withRegistry(meterRegistry);
+    }
+
+    @Override
+    public Page<Customer> searchCustomers(CustomerSearchCriteria criteria, Pageable pageable) {
+        List<Customer> content = queryTimer.withTags("query", "data")
+                .record(() -> select(criteria, null, pageable, pageable.getPageSize()));
+        // Skips the COUNT when the page is the first or last one and already tells the total.
+        return PageableExecutionUtils.getPage(content, pageable, () -> countCustomers(criteria));
+    }
+
+    @Override
+    public Slice<Customer> searchCustomerSlice(CustomerSearchCriteria criteria, Pageable pageable) {
+        List<Customer> content = queryTimer.withTags("query", "slice")
+                .record(() -> select(criteria, null, pageable, pageable.getPageSize() + 1));
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public long countCustomers(CustomerSearchCriteria criteria) {
+        return queryTimer.withTags("query", "count").record(() -> count(criteria));
+    }
+
+    @Override
+    public List<Customer> searchCustomersAfter(CustomerSearchCriteria criteria, long lastId, Pageable pageable) {
+        return queryTimer.withTags("query", "keyset")
+                .record(() -> select(criteria, lastId, Pageable.ofSize(pageable.getPageSize()), pageable.getPageSize()));
+    }
+
+    private long count(CustomerSearchCriteria criteria) {
+        HibernateCriteriaBuilder cb = criteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Customer> root = query.from(Customer.class);
+        query.select(cb.count(root)).where(predicates(cb, root, criteria, null));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private List<Customer> select(CustomerSearchCriteria criteria, Long lastId, Pageable pageable, int maxResults) {
+        HibernateCriteriaBuilder cb = criteriaBuilder();
+        CriteriaQuery<Customer> query = cb.createQuery(Customer.class);
+        Root<Customer> root = query.from(Customer.class);
+        query.select(root).where(predicates(cb, root, criteria, lastId));
+        if (lastId != null) {
+            query.orderBy(cb.asc(root.get("id")));
+        } else if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        return entityManager.createQuery(query)
+                .setFirstResult(lastId != null ? 0 : (int) pageable.getOffset())
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+
+    private Predicate[] predicates(HibernateCriteriaBuilder cb, Root<Customer> root,
+                                   CustomerSearchCriteria criteria, Long lastId) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (lastId != null) {
+            predicates.add(cb.greaterThan(root.get("id"), lastId));
+        }
+        if (criteria.getName() != null) {
+            predicates.add(cb.ilike(root.get("name"), contains(criteria.getName())));
+        }
+        if (criteria.getCustomerEmail() != null) {
+            predicates.add(cb.ilike(root.get("customerEmail"), contains(criteria.getCustomerEmail())));
+        }
+        if (criteria.getCustomerPhoneNumber() != null) {
+            predicates.add(cb.ilike(root.get("customerPhoneNumber"), contains(criteria.getCustomerPhoneNumber())));
+        }
+        if (criteria.getAddress() != null) {
+            predicates.add(cb.ilike(root.get("address"), contains(criteria.getAddress())));
+        }
+        if (criteria.getIndustry() != null) {
+            predicates.add(cb.equal(root.get("industry"), criteria.getIndustry()));
+        }
+        if (criteria.getCompanySize() != null) {
+            predicates.add(cb.equal(root.get("companySize"), criteria.getCompanySize()));
+        }
+        if (criteria.getStatus() != null) {
+            predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private HibernateCriteriaBuilder criteriaBuilder() {
+        return (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+    }
+
+    private static String contains(String value) {
+        return "%" + value + "%";
+    }
+}
@@ -0,0 +1,114 @@
+package com.customer.spring.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+
+/**
+ * Short-lived cache of HTTP Basic credentials that already passed a password check, so clients
+ * that send Basic auth on every request do not pay a password hash each time. Entries are keyed
+ * by an HMAC of username and password under a per-JVM random key; the plaintext is never kept.
+ * A password change drops the user's entries here and, through {@link #INVALIDATION_TOPIC}, on
+ * every other replica.
+ */
+@Component
+public class BasicCredentialCache {
+
+    public static final String INVALIDATION_TOPIC = "basic-credential-invalidation";
+
+    private final Cache<ByteBuffer, UserDetails> cache;
+    private final SecretKey hmacKey;
+    private final KafkaProducerService kafkaProducerService;
+
+    public BasicCredentialCache(KafkaProducerService kafkaProducerService,
+                                @Value("${security.basic-auth.cache.maximum-size:10000}") long maximumSize,
+                                @Value("${security.basic-auth.cache.ttl:60s}") Duration ttl) {
+        this.kafkaProducerService = kafkaProducerService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        try {
+            this.hmacKey = KeyGenerator.getInstance("HmacSHA256").generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Wraps {@code delegate} so that a username/password pair it accepted is answered from the
+     * cache until the entry expires. Failed attempts are never cached.
+     */
+    public AuthenticationProvider caching(AuthenticationProvider delegate) {
+        return new AuthenticationProvider() {
+            @Override
+            public Authentication authenticate(Authentication authentication) {
+                if (authentication.getCredentials() == null) {
+                    return delegate.authenticate(authentication);
+                }
+                ByteBuffer key = key(authentication.getName(), authentication.getCredentials().toString());
+                UserDetails cached = cache.getIfPresent(key);
+                if (cached != null) {
+                    UsernamePasswordAuthenticationToken result =
+                            UsernamePasswordAuthenticationToken.authenticated(cached, null, cached.getAuthorities());
+                    result.setDetails(authentication.getDetails());
+                    return result;
+                }
+
+                Authentication result = delegate.authenticate(authentication);
+                if (result != null && result.getPrincipal() instanceof UserDetails userDetails) {
+                    cache.put(key, userDetails);
+                }
+                return result;
+            }
+
+            @Override
+            public boolean supports(Class<?> authentication) {
+                return delegate.supports(authentication);
+            }
+        };
+    }
+
+    public void invalidate(String username) {
+        invalidateLocal(username);
+        kafkaProducerService.broadcast(INVALIDATION_TOPIC, username, username);
+    }
+
+    @KafkaListener(topics = INVALIDATION_TOPIC,
+            groupId = "basic-credential-cache-${random.uuid}",
+            autoStartup = "${security.basic-auth.cache.invalidation.enabled:true}",
+            properties = "auto.offset.reset=latest")
+    public void onInvalidation(String username) {
+        invalidateLocal(username);
+    }
+
+    private void invalidateLocal(String username) {
+        cache.asMap().values().removeIf(userDetails -> userDetails.getUsername().equals(username));
+    }
+
+    private ByteBuffer key(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(hmacKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return ByteBuffer.wrap(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.customer.spring.service;
+
+import com.customer.spring.dto.CustomerDTO;
+import com.customer.spring.entity.Customer;
+import com.customer.spring.mapper.CustomerMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Size- and TTL-bounded read-through cache of customers by id. Writes invalidate the local
+ * entry and publish the id on {@link #INVALIDATION_TOPIC}; every replica listens with its own
+ * consumer group, so the invalidation reaches all of them.
+ * <p>
+ * An invalidation carries the row version the write produced, and that version is remembered
+ * for the TTL. A load that read the row before the write, but finished after the invalidation,
+ * is then returned to its caller without being cached, so it cannot outlive the write.
+ */
+@Component
+public class CustomerCache {
+
+    public static final String INVALIDATION_TOPIC = "customer-cache-invalidation";
+
+    private final Cache<Long, Entry> cache;
+    // Lowest row version a cached entry may have, per recently written customer.
+    private final Cache<Long, Long> minimumVersions;
+    private final KafkaProducerService kafkaProducerService;
+    private final CustomerMapper customerMapper;
+
+    public CustomerCache(KafkaProducerService kafkaProducerService,
+                         CustomerMapper customerMapper,
+                         @Value("${customer.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${customer.cache.ttl:5m}") Duration ttl) {
+        this.kafkaProducerService = kafkaProducerService;
+        this.customerMapper = customerMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.minimumVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public CustomerDTO get(long id, Function<Long, Customer> loader) {
+        Entry entry = cache.get(id, key -> {
+            Customer customer = loader.apply(key);
+            return new Entry(versionOf(customer.getVersion()), customerMapper.toDto(customer));
+        });
+        Long minimumVersion = minimumVersions.getIfPresent(id);
+        if (minimumVersion != null && entry.version() < minimumVersion) {
+            cache.asMap().remove(id, entry);
+        }
+        return entry.customer();
+    }
+
+    /**
+     * @param version the row version written by the change, or {@code null} if unknown
+     */
+    public void invalidate(long id, Long version) {
+        invalidateLocally(id, versionOf(version));
+        kafkaProducerService.broadcast(INVALIDATION_TOPIC, String.valueOf(id), id + ":" + versionOf(version));
+    }
+
+    @KafkaListener(topics = INVALIDATION_TOPIC,
+            groupId = "customer-cache-${random.uuid}",
+            autoStartup = "${customer.cache.invalidation.enabled:true}",
+            properties = "auto.offset.reset=latest")
+    public void onInvalidation(String message) {
+        // "id:version"; messages from before versioning carry only the id.
+        int separator = message.indexOf(':');
+        if (separator < 0) {
+            cache.invalidate(Long.valueOf(message));
+        } else {
+            invalidateLocally(Long.parseLong(message.substring(0, separator)),
+                    Long.parseLong(message.substring(separator + 1)));
+        }
+    }
+
+    // The minimum is raised before the entry is dropped, so a load finishing in between is caught by get.
+    private void invalidateLocally(long id, long version) {
+        minimumVersions.asMap().merge(id, version, Math::max);
+        cache.invalidate(id);
+    }
+
+    private static long versionOf(Long version) {
+        return version == null ? 0 : version;
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> response = new HashMap<>();
+        response.put("size", cache.estimatedSize());
+        response.put("hit_count", stats.hitCount());
+        response.put("miss_count", stats.missCount());
+        response.put("eviction_count", stats.evictionCount());
+        response.put("hit_rate", stats.hitRate());
+        return response;
+    }
+
+    private record Entry(long version, CustomerDTO customer) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.customer.spring.service;
+
+import com.customer.spring.entity.Customer;
+import com.customer.spring.exception.ServiceOverloadedException;
+import com.customer.spring.mapper.CustomerEventCodec;
+import com.customer.spring.repository.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bootstraps the customer events topic by publishing a {@code SNAPSHOT} event for every customer,
+ * so a new consumer of the compacted topic sees the whole table, not only the customers changed
+ * since the topic was created. The table is walked in id order, one transaction per batch, and
+ * the events go through the outbox like any other change.
+ * <p>
+ * Runs on demand through {@link #startInBackground()}, or at startup when {@code customer.events.snapshot-on-startup} is set; enable
+ * that on one instance only. A background run submits one task per batch to the async executor,
+ * so each task stays well inside the executor's task timeout and other async work can interleave.
+ * Only one background run is active at a time.
+ */
+@Component
+public class CustomerEventSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerEventSnapshot.class);
+
+    private final CustomerRepository customerRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor asyncExecutor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final boolean onStartup;
+    private final int batchSize;
+
+    public CustomerEventSnapshot(CustomerRepository customerRepository,
+                                 OutboxService outboxService,
+                                 TransactionTemplate transactionTemplate,
+                                 @Qualifier("asyncExecutor") Executor asyncExecutor,
+                                 @Value("${customer.events.snapshot-on-startup:false}") boolean onStartup,
+                                 @Value("${customer.events.snapshot-batch-size:500}") int batchSize) {
+        this.customerRepository = customerRepository;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.asyncExecutor = asyncExecutor;
+        this.onStartup = onStartup;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void publishOnStartup() {
+        if (onStartup) {
+            startInBackground();
+        }
+    }
+
+    /**
+     * Starts a snapshot on the async executor and returns right away.
+     *
+     * @return {@code false} if a background snapshot is already running
+     * @throws ServiceOverloadedException if the async executor rejects the first batch
+     */
+    public boolean startInBackground() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            submitBatch(0, 0);
+        } catch (TaskRejectedException e) {
+            running.set(false);
+            throw new ServiceOverloadedException("The async executor is saturated, please retry later", 1);
+        }
+        return true;
+    }
+
+    private void submitBatch(long afterId, long publishedSoFar) {
+        asyncExecutor.execute(() -> {
+            try {
+                List<Customer> batch = publishBatch(afterId);
+                long published = publishedSoFar + batch.size();
+                if (batch.size() < batchSize) {
+                    running.set(false);
+                    log.info("Published {} customer snapshot events", published);
+                } else {
+                    submitBatch(batch.get(batch.size() - 1).getId(), published);
+                }
+            } catch (RuntimeException e) {
+                running.set(false);
+                log.error("Customer snapshot stopped after {} events, past customer id {}", publishedSoFar, afterId, e);
+            }
+        });
+    }
+
+    private List<Customer> publishBatch(long afterId) {
+        return transactionTemplate.execute(status -> {
+            List<Customer> customers = customerRepository.lockSnapshotBatch(afterId, PageRequest.of(0, batchSize));
+            Instant now = Instant.now();
+            for (Customer customer : customers) {
+                outboxService.append(CustomerService.CUSTOMER_EVENTS_TOPIC, String.valueOf(customer.getId()),
+                        CustomerEventCodec.encode(CustomerEventCodec.Type.SNAPSHOT, now, customer));
+            }
+            return customers;
+        });
+    }
+}
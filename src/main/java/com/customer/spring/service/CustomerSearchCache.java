@@ -0,0 +1,94 @@
+package com.customer.spring.service;
+
+import com.customer.spring.entity.CustomerSearchCriteria;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches search responses by normalized criteria, page and limit. Every key carries the
+ * current write generation, so bumping the generation on a customer write makes all older
+ * entries unreachable at once; they then age out through the size and TTL bounds.
+ * Concurrent misses on the same key wait for a single load instead of all querying.
+ */
+@Component
+public class CustomerSearchCache {
+
+    public static final String INVALIDATION_TOPIC = "customer-search-invalidation";
+
+    private final Cache<SearchKey, Map<String, Object>> cache;
+    private final KafkaProducerService kafkaProducerService;
+    private final boolean enabled;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CustomerSearchCache(KafkaProducerService kafkaProducerService,
+                               @Value("${customer.search.cache.enabled:true}") boolean enabled,
+                               @Value("${customer.search.cache.maximum-size:1000}") long maximumSize,
+                               @Value("${customer.search.cache.ttl:30s}") Duration ttl) {
+        this.kafkaProducerService = kafkaProducerService;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Map<String, Object> get(String mode, CustomerSearchCriteria criteria, int page, int limit,
+                                   Supplier<Map<String, Object>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        SearchKey key = SearchKey.of(mode, criteria, page, limit, generation.get());
+        return cache.get(key, k -> Collections.unmodifiableMap(loader.get()));
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        kafkaProducerService.broadcast(INVALIDATION_TOPIC, null, "invalidate");
+    }
+
+    @KafkaListener(topics = INVALIDATION_TOPIC,
+            groupId = "customer-search-cache-${random.uuid}",
+            autoStartup = "${customer.cache.invalidation.enabled:true}",
+            properties = "auto.offset.reset=latest")
+    public void onInvalidation(String message) {
+        invalidateLocally();
+    }
+
+    // For changes this replica learns about on its own, such as another replica's write reaching the search index.
+    public void invalidateLocally() {
+        generation.incrementAndGet();
+    }
+
+    private record SearchKey(String mode, String name, String customerEmail, String industry,
+                             Integer companySize, String customerPhoneNumber, String status,
+                             String address, int page, int limit, long generation) {
+
+        // Text criteria are matched case-insensitively, so their case is not part of the key.
+        static SearchKey of(String mode, CustomerSearchCriteria criteria, int page, int limit, long generation) {
+            return new SearchKey(mode,
+                    lowerCase(criteria.getName()),
+                    lowerCase(criteria.getCustomerEmail()),
+                    criteria.getIndustry(),
+                    criteria.getCompanySize(),
+                    lowerCase(criteria.getCustomerPhoneNumber()),
+                    criteria.getStatus(),
+                    lowerCase(criteria.getAddress()),
+                    page, limit, generation);
+        }
+
+        private static String lowerCase(String value) {
+            return value == null ? null : value.toLowerCase(Locale.ROOT);
+        }
+    }
+}
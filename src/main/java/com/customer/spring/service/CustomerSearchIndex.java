@@ -0,0 +1,484 @@
+package com.customer.spring.service;
+
+import com.customer.spring.dto.CustomerDTO;
+import com.customer.spring.entity.Customer;
+import com.customer.spring.entity.CustomerSearchCriteria;
+import com.customer.spring.mapper.CustomerEventCodec;
+import com.customer.spring.mapper.CustomerMapper;
+import com.customer.spring.repository.CustomerRepository;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Optional in-memory search engine for the customer search endpoint.
+ * <p>
+ * Name, email, phone number and address are indexed as lower-cased trigrams, each trigram
+ * pointing to a sorted int array of document ordinals. A substring term of three or more
+ * characters is answered by intersecting the postings of its trigrams and then confirming
+ * the candidates with {@link String#contains}. Industry, status and company size are exact
+ * filters kept as one {@link BitSet} per value.
+ * <p>
+ * The index is built at startup by walking the table in keyset pages. {@link CustomerService}
+ * applies this replica's writes right away, and every replica follows the customer events topic
+ * with its own consumer group, so writes made on other replicas arrive once the outbox relay has
+ * published them. Each entry keeps the customer's row version and only a newer version replaces
+ * it, so events and build pages can arrive in any order. On its first assignment the consumer
+ * seeks back to shortly before this bean was created, which covers every change the startup
+ * walk could have missed. A change applied from the topic also invalidates the local search
+ * cache. Until the index is built, or when {@code customer.search.index.enabled} is false,
+ * {@link #isReady()} is false and searches go to the database.
+ */
+@Component
+public class CustomerSearchIndex implements ConsumerSeekAware {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerSearchIndex.class);
+
+    private static final int GRAM = 3;
+    private static final Postings EMPTY = new Postings();
+    // Allows for clock skew between this replica and the relay that stamped the records.
+    private static final Duration REPLAY_MARGIN = Duration.ofMinutes(1);
+
+    private final CustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+    private final CustomerSearchCache customerSearchCache;
+    private final boolean enabled;
+    private final int buildPageSize;
+    private final Instant createdAt = Instant.now();
+    private final AtomicBoolean replayOnAssignment = new AtomicBoolean(true);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TextField name = new TextField(CustomerDTO::getName);
+    private final TextField email = new TextField(CustomerDTO::getCustomerEmail);
+    private final TextField phoneNumber = new TextField(CustomerDTO::getCustomerPhoneNumber);
+    private final TextField address = new TextField(CustomerDTO::getAddress);
+    private final Map<String, BitSet> byIndustry = new HashMap<>();
+    private final Map<String, BitSet> byStatus = new HashMap<>();
+    private final Map<Integer, BitSet> byCompanySize = new HashMap<>();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private CustomerDTO[] documents = new CustomerDTO[1024];
+    private long[] versions = new long[1024];
+    private int size;
+    private volatile boolean ready;
+
+    public CustomerSearchIndex(CustomerRepository customerRepository, CustomerMapper customerMapper,
+                               CustomerSearchCache customerSearchCache,
+                               @Value("${customer.search.index.enabled:false}") boolean enabled,
+                               @Value("${customer.search.index.build-page-size:1000}") int buildPageSize) {
+        this.customerRepository = customerRepository;
+        this.customerMapper = customerMapper;
+        this.customerSearchCache = customerSearchCache;
+        this.enabled = enabled;
+        this.buildPageSize = buildPageSize;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        CustomerSearchCriteria all = new CustomerSearchCriteria();
+        long lastId = 0L;
+        List<Customer> page;
+        do {
+            page = customerRepository.searchCustomersAfter(all, lastId, PageRequest.of(0, buildPageSize));
+            for (Customer customer : page) {
+                index(customer);
+                lastId = customer.getId();
+            }
+        } while (page.size() == buildPageSize);
+        ready = true;
+        log.info("Customer search index built with {} customers in {} ms", size, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public void index(Customer customer) {
+        if (!enabled || customer == null || customer.getId() == null) {
+            return;
+        }
+        apply(customerMapper.toDto(customer), customer.getVersion() == null ? 0 : customer.getVersion());
+    }
+
+    @KafkaListener(topics = CustomerService.CUSTOMER_EVENTS_TOPIC,
+            groupId = "customer-search-index-${random.uuid}",
+            autoStartup = "${customer.search.index.enabled:false}",
+            properties = "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer")
+    public void onCustomerEvent(byte[] record) {
+        CustomerEventCodec.CustomerEvent event = CustomerEventCodec.decode(record);
+        if (enabled && apply(event.customer(), event.version())) {
+            customerSearchCache.invalidateLocally();
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        if (replayOnAssignment.compareAndSet(true, false)) {
+            callback.seekToTimestamp(assignments.keySet(), createdAt.minus(REPLAY_MARGIN).toEpochMilli());
+        }
+    }
+
+    // Returns whether the document was added or replaced, i.e. whether it was newer than the entry.
+    private boolean apply(CustomerDTO document, long version) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalById.get(document.getId());
+            if (ordinal == null) {
+                add(document, version);
+                return true;
+            }
+            if (version <= versions[ordinal]) {
+                return false;
+            }
+            replace(ordinal, document, version);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Page<CustomerDTO> searchPage(CustomerSearchCriteria criteria, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            Matcher matcher = new Matcher(criteria);
+            List<CustomerDTO> content = new ArrayList<>(pageable.getPageSize());
+            long offset = pageable.getOffset();
+            long total = 0;
+            for (int ordinal = matcher.next(0); ordinal >= 0; ordinal = matcher.next(ordinal + 1)) {
+                if (total >= offset && content.size() < pageable.getPageSize()) {
+                    content.add(documents[ordinal]);
+                }
+                total++;
+            }
+            return new PageImpl<>(content, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Slice<CustomerDTO> searchSlice(CustomerSearchCriteria criteria, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            Matcher matcher = new Matcher(criteria);
+            List<CustomerDTO> content = new ArrayList<>(pageable.getPageSize());
+            long offset = pageable.getOffset();
+            long seen = 0;
+            boolean hasNext = false;
+            for (int ordinal = matcher.next(0); ordinal >= 0; ordinal = matcher.next(ordinal + 1)) {
+                if (seen++ < offset) {
+                    continue;
+                }
+                if (content.size() == pageable.getPageSize()) {
+                    hasNext = true;
+                    break;
+                }
+                content.add(documents[ordinal]);
+            }
+            return new SliceImpl<>(content, pageable, hasNext);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long count(CustomerSearchCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            Matcher matcher = new Matcher(criteria);
+            long total = 0;
+            for (int ordinal = matcher.next(0); ordinal >= 0; ordinal = matcher.next(ordinal + 1)) {
+                total++;
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(CustomerDTO document, long version) {
+        int ordinal = size++;
+        if (ordinal == documents.length) {
+            documents = Arrays.copyOf(documents, documents.length * 2);
+            versions = Arrays.copyOf(versions, versions.length * 2);
+        }
+        documents[ordinal] = document;
+        versions[ordinal] = version;
+        ordinalById.put(document.getId(), ordinal);
+        for (TextField field : textFields()) {
+            field.add(ordinal, document);
+        }
+        bits(byIndustry, document.getIndustry()).set(ordinal);
+        bits(byStatus, document.getStatus()).set(ordinal);
+        bits(byCompanySize, document.getCompanySize()).set(ordinal);
+    }
+
+    private void replace(int ordinal, CustomerDTO document, long version) {
+        CustomerDTO previous = documents[ordinal];
+        for (TextField field : textFields()) {
+            field.replace(ordinal, document);
+        }
+        bits(byIndustry, previous.getIndustry()).clear(ordinal);
+        bits(byStatus, previous.getStatus()).clear(ordinal);
+        bits(byCompanySize, previous.getCompanySize()).clear(ordinal);
+        bits(byIndustry, document.getIndustry()).set(ordinal);
+        bits(byStatus, document.getStatus()).set(ordinal);
+        bits(byCompanySize, document.getCompanySize()).set(ordinal);
+        documents[ordinal] = document;
+        versions[ordinal] = version;
+    }
+
+    private TextField[] textFields() {
+        return new TextField[]{name, email, phoneNumber, address};
+    }
+
+    private static <K> BitSet bits(Map<K, BitSet> index, K value) {
+        return index.computeIfAbsent(value, key -> new BitSet());
+    }
+
+    // Null stays null, so like the database's ILIKE no term, not even an empty one, matches it.
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static long gram(String value, int at) {
+        return ((long) value.charAt(at) << 32) | ((long) value.charAt(at + 1) << 16) | value.charAt(at + 2);
+    }
+
+    /**
+     * Walks the ordinals that satisfy every supplied criterion in ascending order. The
+     * driving set is the shortest trigram postings list, or the exact-filter bitset when no
+     * term is long enough to have trigrams; everything else is checked per candidate.
+     */
+    private final class Matcher {
+
+        private final List<Postings> postings = new ArrayList<>();
+        private final List<BitSet> filters = new ArrayList<>();
+        private final List<TextField> termFields = new ArrayList<>();
+        private final List<String> terms = new ArrayList<>();
+        private Postings driver;
+        private int cursor;
+        private boolean empty;
+
+        Matcher(CustomerSearchCriteria criteria) {
+            term(name, criteria.getName());
+            term(email, criteria.getCustomerEmail());
+            term(phoneNumber, criteria.getCustomerPhoneNumber());
+            term(address, criteria.getAddress());
+            filter(byIndustry, criteria.getIndustry());
+            filter(byStatus, criteria.getStatus());
+            filter(byCompanySize, criteria.getCompanySize());
+            for (Postings list : postings) {
+                if (driver == null || list.length < driver.length) {
+                    driver = list;
+                }
+            }
+        }
+
+        private void term(TextField field, String value) {
+            if (value == null) {
+                return;
+            }
+            String term = normalize(value);
+            termFields.add(field);
+            terms.add(term);
+            for (int i = 0; i + GRAM <= term.length(); i++) {
+                Postings list = field.postings(gram(term, i));
+                if (list.length == 0) {
+                    empty = true;
+                }
+                postings.add(list);
+            }
+        }
+
+        private <K> void filter(Map<K, BitSet> index, K value) {
+            if (value == null) {
+                return;
+            }
+            BitSet bits = index.get(value);
+            if (bits == null || bits.isEmpty()) {
+                empty = true;
+            } else {
+                filters.add(bits);
+            }
+        }
+
+        int next(int from) {
+            if (empty) {
+                return -1;
+            }
+            while (true) {
+                int candidate = nextCandidate(from);
+                if (candidate < 0 || matches(candidate)) {
+                    return candidate;
+                }
+                from = candidate + 1;
+            }
+        }
+
+        private int nextCandidate(int from) {
+            if (driver != null) {
+                while (cursor < driver.length && driver.ordinals[cursor] < from) {
+                    cursor++;
+                }
+                return cursor < driver.length ? driver.ordinals[cursor] : -1;
+            }
+            if (!filters.isEmpty()) {
+                return filters.get(0).nextSetBit(from);
+            }
+            return from < size ? from : -1;
+        }
+
+        private boolean matches(int ordinal) {
+            for (Postings list : postings) {
+                if (list != driver && !list.contains(ordinal)) {
+                    return false;
+                }
+            }
+            for (BitSet bits : filters) {
+                if (!bits.get(ordinal)) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < terms.size(); i++) {
+                String value = termFields.get(i).value(ordinal);
+                if (value == null || !value.contains(terms.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Trigram postings of one text field plus its normalized values by ordinal.
+     */
+    private static final class TextField {
+
+        private final Function<CustomerDTO, String> getter;
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private String[] values = new String[1024];
+
+        TextField(Function<CustomerDTO, String> getter) {
+            this.getter = getter;
+        }
+
+        String value(int ordinal) {
+            return values[ordinal];
+        }
+
+        Postings postings(long gram) {
+            return postings.getOrDefault(gram, EMPTY);
+        }
+
+        void add(int ordinal, CustomerDTO document) {
+            if (ordinal >= values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, ordinal + 1));
+            }
+            String value = normalize(getter.apply(document));
+            values[ordinal] = value;
+            for (long gram : grams(value)) {
+                postings.computeIfAbsent(gram, key -> new Postings()).insert(ordinal);
+            }
+        }
+
+        void replace(int ordinal, CustomerDTO document) {
+            String value = normalize(getter.apply(document));
+            if (Objects.equals(value, values[ordinal])) {
+                return;
+            }
+            for (long gram : grams(values[ordinal])) {
+                postings(gram).remove(ordinal);
+            }
+            values[ordinal] = value;
+            for (long gram : grams(value)) {
+                postings.computeIfAbsent(gram, key -> new Postings()).insert(ordinal);
+            }
+        }
+
+        private static long[] grams(String value) {
+            if (value == null || value.length() < GRAM) {
+                return new long[0];
+            }
+            long[] grams = new long[value.length() - GRAM + 1];
+            for (int i = 0; i < grams.length; i++) {
+                grams[i] = gram(value, i);
+            }
+            Arrays.sort(grams);
+            int distinct = 0;
+            for (int i = 0; i < grams.length; i++) {
+                if (i == 0 || grams[i] != grams[i - 1]) {
+                    grams[distinct++] = grams[i];
+                }
+            }
+            return Arrays.copyOf(grams, distinct);
+        }
+    }
+
+    /**
+     * Sorted int array of ordinals with spare capacity, so appends at build time are
+     * amortized O(1) and updates are a binary search plus one array shift.
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+        private int length;
+
+        boolean contains(int ordinal) {
+            return Arrays.binarySearch(ordinals, 0, length, ordinal) >= 0;
+        }
+
+        void insert(int ordinal) {
+            int at = length == 0 || ordinals[length - 1] < ordinal
+                    ? length
+                    : Arrays.binarySearch(ordinals, 0, length, ordinal);
+            if (at < 0) {
+                at = -at - 1;
+            } else if (at < length) {
+                return;
+            }
+            if (length == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, length * 2);
+            }
+            System.arraycopy(ordinals, at, ordinals, at + 1, length - at);
+            ordinals[at] = ordinal;
+            length++;
+        }
+
+        void remove(int ordinal) {
+            int at = Arrays.binarySearch(ordinals, 0, length, ordinal);
+            if (at >= 0) {
+                System.arraycopy(ordinals, at + 1, ordinals, at, length - at - 1);
+                length--;
+            }
+        }
+    }
+}
@@ -1,34 +1,73 @@
 package com.customer.spring.service;
 
+import com.customer.spring.dto.CustomerBatchResultDTO;
 import com.customer.spring.dto.CustomerDTO;
 import com.customer.spring.entity.Customer;
 import com.customer.spring.entity.CustomerSearchCriteria;
 import com.customer.spring.exception.ConflictException;
+import com.customer.spring.mapper.CustomerEventCodec;
 import com.customer.spring.mapper.CustomerMapper;
 import com.customer.spring.repository.CustomerRepository;
 import com.sun.jdi.request.InvalidRequestStateException;
 import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 
 @Service
 public class CustomerService {
+    private static final String BATCH_ROW_CREATED = "created";
+    private static final String BATCH_ROW_FAILED = "failed";
+    private static final String CURSOR_PREFIX = "id:";
+
+    // Log-compacted and keyed by customer id; values are encoded with CustomerEventCodec.
+    public static final String CUSTOMER_EVENTS_TOPIC = "customer-events";
+
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final CustomerSearchIndex customerSearchIndex;
+    private final CustomerCache customerCache;
+    private final CustomerSearchCache customerSearchCache;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${customer.batch.max-size:10000}")
+    private int batchMaxSize = 10000;
 
+    @Value("${customer.batch.chunk-size:500}")
+    private int batchChunkSize = 500;
 
-    public CustomerService(CustomerRepository customerRepository, CustomerMapper customerMapper) {
+
+    public CustomerService(CustomerRepository customerRepository, CustomerMapper customerMapper,
+                           CustomerSearchIndex customerSearchIndex, CustomerCache customerCache,
+                           CustomerSearchCache customerSearchCache, OutboxService outboxService,
+                           TransactionTemplate transactionTemplate) {
         this.customerRepository = customerRepository;
         this.customerMapper = customerMapper;
-
+        this.customerSearchIndex = customerSearchIndex;
+        this.customerCache = customerCache;
+        this.customerSearchCache = customerSearchCache;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     public long createCustomer(CustomerDTO customerDTO) {
@@ -36,10 +75,40 @@ public class CustomerService {
 
         Customer customer = customerMapper.toEntity(customerDTO);
 
-        CustomerDTO result = customerMapper.toDto(customerRepository.save(customer));
+        CustomerDTO result = customerMapper.toDto(saveUnique(customer, CustomerEventCodec.Type.CREATED));
+        customerSearchCache.invalidate();
         return result.getId();
     }
 
+    public Map<String, Object> createCustomers(List<CustomerDTO> customerDTOs) {
+        if (customerDTOs == null || customerDTOs.isEmpty()) {
+            throw new InvalidRequestStateException("The customer list is either not entered or empty.");
+        }
+        if (customerDTOs.size() > batchMaxSize) {
+            throw new InvalidRequestStateException("A batch can contain at most " + batchMaxSize + " customers.");
+        }
+
+        CustomerBatchResultDTO[] results = new CustomerBatchResultDTO[customerDTOs.size()];
+        Set<String> batchEmails = new HashSet<>();
+        Set<String> batchPhoneNumbers = new HashSet<>();
+        for (int from = 0; from < customerDTOs.size(); from += batchChunkSize) {
+            int to = Math.min(from + batchChunkSize, customerDTOs.size());
+            createCustomerChunk(customerDTOs, from, to, batchEmails, batchPhoneNumbers, results);
+        }
+
+        long created = Arrays.stream(results)
+                .filter(result -> BATCH_ROW_CREATED.equals(result.getStatus()))
+                .count();
+        if (created > 0) {
+            customerSearchCache.invalidate();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("created", created);
+        response.put("failed", results.length - created);
+        response.put("results", Arrays.asList(results));
+        return response;
+    }
+
     public CustomerDTO updateCustomer(long id, CustomerDTO customerDTO) {
         if(isNullOrEmpty(customerDTO.getName())){
             throw new InvalidRequestStateException("The name is either not entered or empty string");
@@ -49,7 +118,20 @@ public class CustomerService {
 
         updateCustomerFields(customer, customerDTO);
 
-        return customerMapper.toDto(customerRepository.save(customer));
+        Customer saved = saveUnique(customer, CustomerEventCodec.Type.UPDATED);
+        CustomerDTO result = customerMapper.toDto(saved);
+        customerCache.invalidate(id, saved.getVersion());
+        customerSearchCache.invalidate();
+        return result;
+    }
+
+    public CustomerDTO getCustomer(long id) {
+        return customerCache.get(id, key -> customerRepository.findById(key)
+                .orElseThrow(() -> new EntityNotFoundException("Customer with ID " + id + " not found in the Database")));
+    }
+
+    public Map<String, Object> customerCacheStats() {
+        return customerCache.stats();
     }
 
     public String statusToggle(long id, String status){
@@ -64,28 +146,90 @@ public class CustomerService {
         }
 
 
-        customerRepository.save(customer);
+        Customer saved = saveUnique(customer, CustomerEventCodec.Type.STATUS_CHANGED);
+        customerCache.invalidate(id, saved.getVersion());
+        customerSearchCache.invalidate();
         return "Customer details " +status+ " successfully";
 
     }
 
     public Map<String, Object> searchCustomers(CustomerSearchCriteria criteria, int page, int limit) {
+        return customerSearchCache.get("page", criteria, page, limit, () -> loadSearchPage(criteria, page, limit));
+    }
+
+    public Map<String, Object> searchCustomerSlice(CustomerSearchCriteria criteria, int page, int limit) {
+        return customerSearchCache.get("slice", criteria, page, limit, () -> loadSearchSlice(criteria, page, limit));
+    }
+
+    public Map<String, Object> countCustomers(CustomerSearchCriteria criteria) {
+        return customerSearchCache.get("count", criteria, 0, 0, () -> loadCount(criteria));
+    }
+
+    private Map<String, Object> loadSearchPage(CustomerSearchCriteria criteria, int page, int limit) {
         Pageable pageable = PageRequest.of(page, limit);
-        Page<Customer> customersPage = customerRepository.searchCustomers(
+        Page<CustomerDTO> customersPage = customerSearchIndex.isReady()
+                ? customerSearchIndex.searchPage(criteria, pageable)
+                : customerRepository.searchCustomers(criteria, pageable).map(customerMapper::toDto);
+
+        List<CustomerDTO> results = customersPage.getContent();
+        if(results.isEmpty()){
+            throw new InvalidRequestStateException("No results with the provided data. Try again.");
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("total_count", customersPage.getTotalElements());
+        response.put("page_count", customersPage.getTotalPages());
+        response.put("current_page", page);
+        response.put("results", results);
+
+        return response;
+    }
+
+    private Map<String, Object> loadSearchSlice(CustomerSearchCriteria criteria, int page, int limit) {
+        Pageable pageable = PageRequest.of(page, limit);
+        Slice<CustomerDTO> customersSlice = customerSearchIndex.isReady()
+                ? customerSearchIndex.searchSlice(criteria, pageable)
+                : customerRepository.searchCustomerSlice(criteria, pageable).map(customerMapper::toDto);
+
+        List<CustomerDTO> results = customersSlice.getContent();
+        if(results.isEmpty()){
+            throw new InvalidRequestStateException("No results with the provided data. Try again.");
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("has_next", customersSlice.hasNext());
+        response.put("current_page", page);
+        response.put("results", results);
+
+        return response;
+    }
+
+    private Map<String, Object> loadCount(CustomerSearchCriteria criteria) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("total_count", customerSearchIndex.isReady()
+                ? customerSearchIndex.count(criteria)
+                : customerRepository.countCustomers(criteria));
+        return response;
+    }
+
+    public Map<String, Object> searchCustomersAfter(CustomerSearchCriteria criteria, String cursor, int limit) {
+        long lastId = decodeCursor(cursor);
+        // One extra row tells us whether another page exists without a COUNT query.
+        List<Customer> customers = customerRepository.searchCustomersAfter(
                 criteria,
-                pageable
+                lastId,
+                PageRequest.of(0, limit + 1)
         );
 
-        List<CustomerDTO> results = customersPage.getContent().stream()
+        boolean hasNext = customers.size() > limit;
+        List<CustomerDTO> results = customers.stream()
+                .limit(limit)
                 .map(customerMapper::toDto)
                 .toList();
         if(results.isEmpty()){
             throw new InvalidRequestStateException("No results with the provided data. Try again.");
         }
         Map<String, Object> response = new HashMap<>();
-        response.put("total_count", customersPage.getTotalElements());
-        response.put("page_count", customersPage.getTotalPages());
-        response.put("current_page", page);
+        response.put("has_next", hasNext);
+        response.put("next_cursor", hasNext ? encodeCursor(results.get(results.size() - 1).getId()) : null);
         response.put("results", results);
 
         return response;
@@ -94,6 +238,142 @@ public class CustomerService {
 
 
     //Helper methods
+    private String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long decodeCursor(String cursor) {
+        if (isNullOrEmpty(cursor)) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+        }
+    }
+
+    private void createCustomerChunk(List<CustomerDTO> customerDTOs, int from, int to,
+                                     Set<String> batchEmails, Set<String> batchPhoneNumbers,
+                                     CustomerBatchResultDTO[] results) {
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            try {
+                validateCustomerDTO(customerDTOs.get(i));
+                validIndexes.add(i);
+            } catch (InvalidRequestStateException ex) {
+                results[i] = new CustomerBatchResultDTO(i, null, BATCH_ROW_FAILED, ex.getMessage());
+            }
+        }
+        if (validIndexes.isEmpty()) {
+            return;
+        }
+
+        Set<String> emails = new HashSet<>();
+        Set<String> phoneNumbers = new HashSet<>();
+        for (int i : validIndexes) {
+            emails.add(customerDTOs.get(i).getCustomerEmail());
+            phoneNumbers.add(customerDTOs.get(i).getCustomerPhoneNumber());
+        }
+        Set<String> existingEmails = new HashSet<>(customerRepository.findExistingEmails(emails));
+        Set<String> existingPhoneNumbers = new HashSet<>(customerRepository.findExistingPhoneNumbers(phoneNumbers));
+
+        List<Integer> insertIndexes = new ArrayList<>();
+        List<Customer> customers = new ArrayList<>();
+        for (int i : validIndexes) {
+            CustomerDTO customerDTO = customerDTOs.get(i);
+            String email = customerDTO.getCustomerEmail();
+            String phoneNumber = customerDTO.getCustomerPhoneNumber();
+            if (existingEmails.contains(email) || batchEmails.contains(email)) {
+                results[i] = new CustomerBatchResultDTO(i, null, BATCH_ROW_FAILED, "Email address already in use: " + email);
+            } else if (existingPhoneNumbers.contains(phoneNumber) || batchPhoneNumbers.contains(phoneNumber)) {
+                results[i] = new CustomerBatchResultDTO(i, null, BATCH_ROW_FAILED, "Phone number already in use: " + phoneNumber);
+            } else {
+                batchEmails.add(email);
+                batchPhoneNumbers.add(phoneNumber);
+                insertIndexes.add(i);
+                customers.add(customerMapper.toEntity(customerDTO));
+            }
+        }
+        if (!customers.isEmpty()) {
+            saveCustomerChunk(insertIndexes, customers, results);
+        }
+    }
+
+    private void saveCustomerChunk(List<Integer> indexes, List<Customer> customers, CustomerBatchResultDTO[] results) {
+        try {
+            List<Customer> saved = transactionTemplate.execute(status -> {
+                List<Customer> inserted = customerRepository.saveAll(customers);
+                customerRepository.flush();
+                inserted.forEach(customer -> appendEvent(customer, CustomerEventCodec.Type.CREATED));
+                return inserted;
+            });
+            saved.forEach(customerSearchIndex::index);
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = new CustomerBatchResultDTO(indexes.get(i), saved.get(i).getId(), BATCH_ROW_CREATED, null);
+            }
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent writer took one of the keys; retry row by row so only that row fails.
+            for (int i = 0; i < indexes.size(); i++) {
+                Customer customer = customers.get(i);
+                customer.setId(null);
+                customer.setVersion(null);
+                try {
+                    Customer saved = saveUnique(customer, CustomerEventCodec.Type.CREATED);
+                    results[indexes.get(i)] = new CustomerBatchResultDTO(indexes.get(i), saved.getId(), BATCH_ROW_CREATED, null);
+                } catch (ConflictException | DataIntegrityViolationException rowEx) {
+                    results[indexes.get(i)] = new CustomerBatchResultDTO(indexes.get(i), null, BATCH_ROW_FAILED, rowEx.getMessage());
+                }
+            }
+        }
+    }
+
+    // Uniqueness of email and phone number is enforced by the unique constraints on
+    // the customers table, so the INSERT/UPDATE is the check and no SELECT is needed.
+    // The flush makes a violation surface here, before the event is appended in the same transaction.
+    private Customer saveUnique(Customer customer, CustomerEventCodec.Type eventType) {
+        try {
+            Customer saved = transactionTemplate.execute(status -> {
+                Customer result = customerRepository.save(customer);
+                customerRepository.flush();
+                appendEvent(result, eventType);
+                return result;
+            });
+            customerSearchIndex.index(saved);
+            return saved;
+        } catch (OptimisticLockingFailureException ex) {
+            throw new ConflictException("Customer with ID " + customer.getId() + " was changed concurrently, please retry");
+        } catch (DataIntegrityViolationException ex) {
+            String constraintName = constraintName(ex);
+            if (Customer.EMAIL_CONSTRAINT.equalsIgnoreCase(constraintName)) {
+                throw new ConflictException("Email address already in use: " + customer.getCustomerEmail());
+            }
+            if (Customer.PHONE_NUMBER_CONSTRAINT.equalsIgnoreCase(constraintName)) {
+                throw new ConflictException("Phone number already in use: " + customer.getCustomerPhoneNumber());
+            }
+            throw ex;
+        }
+    }
+
+    private void appendEvent(Customer customer, CustomerEventCodec.Type eventType) {
+        outboxService.append(CUSTOMER_EVENTS_TOPIC, String.valueOf(customer.getId()),
+                CustomerEventCodec.encode(eventType, Instant.now(), customer));
+    }
+
+    private String constraintName(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName();
+            }
+        }
+        return null;
+    }
+
     private void validateCustomerDTO(CustomerDTO customerDTO) {
 
         setDefaultValuesIfNull(customerDTO);
@@ -104,7 +384,7 @@ public class CustomerService {
         if (isNullOrEmpty(customerDTO.getIndustry())) {
             throw new InvalidRequestStateException("Please enter the Industry.");
         }
-        if (customerDTO.getCompanySize() <= 0) {
+        if (customerDTO.getCompanySize() == null || customerDTO.getCompanySize() <= 0) {
             throw new InvalidRequestStateException("Company size is either less than 0 or not given");
         }
         if (isNullOrEmpty(customerDTO.getAddress())) {
@@ -122,14 +402,6 @@ public class CustomerService {
         if (!isValidStatus(customerDTO.getStatus())) {
             throw new InvalidRequestStateException("Status should be either 'enabled' or 'disabled'");
         }
-        Optional<Customer> existingCustomer = customerRepository.findByCustomerEmail(customerDTO.getCustomerEmail());
-        Optional<Customer> existingCustomerPhoneNumber = customerRepository.findByCustomerPhoneNumber(customerDTO.getCustomerPhoneNumber());
-        if (existingCustomer.isPresent()) {
-            throw new ConflictException("Email address already in use: " + customerDTO.getCustomerEmail());
-        }
-        if (existingCustomerPhoneNumber.isPresent()) {
-            throw new ConflictException("Phone number already in use: " + customerDTO.getCustomerPhoneNumber());
-        }
     }
 
     private void setDefaultValuesIfNull(CustomerDTO customerDTO) {
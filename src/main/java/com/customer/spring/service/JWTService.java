@@ -1,76 +1,146 @@
 package com.customer.spring.service;
 
-import com.customer.spring.exception.JWTKeyGenerationException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JWTService {
 
-    private String secretKey = "";
-
-    public JWTService() throws JWTKeyGenerationException  {
-        try {
-            KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
-            SecretKey sk = keyGen.generateKey();
-            secretKey = Base64.getEncoder().encodeToString(sk.getEncoded());
-
+    public static final String AUTHORITIES_CLAIM = "authorities";
+
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    // SHA-256 of the token -> already verified claims, so repeat bearer tokens skip the signature check and JSON parse.
+    private final Cache<ByteBuffer, VerifiedToken> verifiedTokens;
+    private final Timer signTimer;
+    private final Meter.MeterProvider<Timer> verifyTimer;
+
+    public JWTService(JwtKeyRing keyRing,
+                      @Value("${jwt.verified-token-cache.maximum-size:10000}") long verifiedTokenCacheSize,
+                      MeterRegistry meterRegistry) {
+        this.keyRing = keyRing;
+        this.signTimer = Timer.builder("jwt.sign").register(meterRegistry);
+        // result is hit (answered from the cache), miss (signature checked) or invalid.
+        this.verifyTimer = Timer.builder("jwt.verify").withRegistry(meterRegistry);
+        parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        Key key = keyRing.verificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Unknown JWT signing key: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(new Expiry<ByteBuffer, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer hash, VerifiedToken token, long currentTime) {
+                        long remainingMillis = token.expiration() == null ? 0 : token.expiration().getTime() - System.currentTimeMillis();
+                        return Math.max(0, remainingMillis) * 1_000_000;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer hash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer hash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
 
-        } catch (NoSuchAlgorithmException e) {
-            throw new JWTKeyGenerationException("Failed to generate secret key for JWT.", e);
-        }
+    public String generateToken(String username) {
+        return generateToken(username, List.of("USER"));
+    }
 
+    public String generateToken(String username, Collection<String> authorities) {
+        return signTimer.record(() -> sign(username, authorities));
     }
 
-    public String generateToken(String username) {
+    private String sign(String username, Collection<String> authorities) {
 
         Map<String, Object> claims = new HashMap<>();
+        claims.put(AUTHORITIES_CLAIM, authorities);
+        JwtKeyRing.KeyEntry signingKey = keyRing.signingKey();
 
         return Jwts.builder()
+                .header()
+                .keyId(signingKey.id())
+                .and()
                 .claims()
                 .add(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + 60 * 60 * 100))
                 .and()
-                .signWith(getKey())
+                .signWith(signingKey.signingKey())
                 .compact();
 
 
     }
 
-    private SecretKey getKey(){
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verifies the token signature once and returns its subject and expiration. Tokens seen
+     * before are answered from the cache until they expire.
+     */
+    public VerifiedToken verify(String token) {
+        long startedAt = System.nanoTime();
+        String result = "hit";
+        try {
+            ByteBuffer hash = hash(token);
+            VerifiedToken verified = verifiedTokens.getIfPresent(hash);
+            if (verified == null) {
+                result = "miss";
+                verified = verifiedTokens.get(hash, h -> parse(token));
+            }
+            return verified;
+        } catch (RuntimeException e) {
+            result = "invalid";
+            throw e;
+        } finally {
+            verifyTimer.withTags("result", result).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
     }
 
-    public String extraceUserName(String token) {
-        return extractClaim(token, Claims::getSubject);
+    private VerifiedToken parse(String token) {
+        Claims claims = extractAllClaims(token);
+        List<?> authorities = claims.get(AUTHORITIES_CLAIM, List.class);
+        return new VerifiedToken(claims.getId(), claims.getSubject(), claims.getExpiration(),
+                authorities == null ? null : authorities.stream().map(String::valueOf).toList());
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimResolver){
-        final Claims claims = extractAllClaims(token);
-        return claimResolver.apply(claims);
-    }
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return parser.parseSignedClaims(token).getPayload();
         } catch (SignatureException ex) {
             throw new SignatureException("Invalid JWT signature. Please provide a valid token.", ex);
         } catch (Exception ex) {
@@ -78,16 +148,26 @@ public class JWTService {
         }
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String userName = extraceUserName(token);
-        return (userName.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    public boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return token.username().equals(userDetails.getUsername()) && !token.isExpired();
     }
 
-    private boolean isTokenExpired(String token){
-        return extractExpiration(token).before(new Date());
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
-    private Date extractExpiration(String token){
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Id, subject, expiration and authorities of a token whose signature has been checked.
+     * {@code authorities} is null for tokens issued before the claim existed.
+     */
+    public record VerifiedToken(String id, String username, Date expiration, List<String> authorities) {
+
+        public boolean isExpired() {
+            return expiration == null || expiration.before(new Date());
+        }
     }
 }
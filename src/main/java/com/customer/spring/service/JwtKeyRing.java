@@ -0,0 +1,219 @@
+package com.customer.spring.service;
+
+import com.customer.spring.exception.JWTKeyGenerationException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * JWT signing and verification keys shared by every replica, identified by {@code kid}.
+ * <p>
+ * Keys come from a PKCS12 keystore ({@code jwt.key-ring.location}, one alias per key) and/or
+ * inline HMAC secrets ({@code jwt.key-ring.secrets=kid:base64[@activation-instant],...}).
+ * Keystore secret entries sign with HMAC; private key entries (EC P-256 or Ed25519) sign with
+ * ES256 or EdDSA and their public keys are published as a JWK set. A keystore key becomes the
+ * signing key {@code activation-delay} after it was added, which gives every replica time to
+ * reload it first; the key it replaces stays valid for verification for {@code grace-period}
+ * after that switchover. An inline secret without an instant activates {@code activation-delay}
+ * after this instance first loaded it, and among secrets with the same activation the one listed
+ * last signs, so list them oldest first. Give an explicit instant to switch every replica at the
+ * same moment. With nothing configured a random per-JVM key is used, as before.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private final KeySource source;
+    private final Duration gracePeriod;
+    private final Clock clock;
+    private volatile List<KeyEntry> entries;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public JwtKeyRing(@Value("${jwt.key-ring.location:}") String location,
+                      @Value("${jwt.key-ring.password:}") String password,
+                      @Value("${jwt.key-ring.secrets:}") String secrets,
+                      @Value("${jwt.key-ring.activation-delay:PT2M}") Duration activationDelay,
+                      @Value("${jwt.key-ring.grace-period:PT1H}") Duration gracePeriod)
+            throws JWTKeyGenerationException {
+        this(keySource(location, password, secrets, activationDelay, Clock.systemUTC()), gracePeriod, Clock.systemUTC());
+    }
+
+    JwtKeyRing(KeySource source, Duration gracePeriod, Clock clock) throws JWTKeyGenerationException {
+        this.source = source;
+        this.gracePeriod = gracePeriod;
+        this.clock = clock;
+        List<KeyEntry> loaded = source.load();
+        if (loaded.isEmpty()) {
+            log.warn("No JWT keys configured; tokens are signed with a per-JVM key and are only valid on this instance");
+            loaded = List.of(ephemeral());
+        }
+        this.entries = loaded;
+        rotate();
+    }
+
+    /**
+     * Re-reads the configured keys, keeping the current ones if the source cannot be read, and
+     * recomputes the signing key so that scheduled activations and retirements take effect.
+     */
+    @Scheduled(fixedDelayString = "${jwt.key-ring.reload-interval:PT1M}",
+            initialDelayString = "${jwt.key-ring.reload-interval:PT1M}")
+    public void reload() {
+        try {
+            List<KeyEntry> loaded = source.load();
+            if (!loaded.isEmpty()) {
+                entries = loaded;
+            }
+        } catch (JWTKeyGenerationException e) {
+            log.error("Keeping the current JWT keys: {}", e.getMessage(), e);
+        }
+        rotate();
+    }
+
+    public KeyEntry signingKey() {
+        return snapshot.signing();
+    }
+
+    public Key verificationKey(String id) {
+        return id == null ? null : snapshot.verification().get(id);
+    }
+
+    public List<Map<String, ?>> publicJwks() {
+        return snapshot.jwks();
+    }
+
+    void rotate() {
+        Instant now = clock.instant();
+        List<KeyEntry> sorted = entries.stream()
+                .sorted(Comparator.comparing(KeyEntry::activatesAt))
+                .toList();
+
+        KeyEntry signing = sorted.get(0);
+        for (KeyEntry entry : sorted) {
+            if (!entry.activatesAt().isAfter(now)) {
+                signing = entry;
+            }
+        }
+
+        // Keys not yet active are accepted too, in case another replica's clock is ahead.
+        Map<String, Key> verification = new HashMap<>();
+        List<Map<String, ?>> jwks = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            KeyEntry entry = sorted.get(i);
+            Instant supersededAt = i + 1 < sorted.size() ? sorted.get(i + 1).activatesAt() : null;
+            boolean retired = supersededAt != null && supersededAt.plus(gracePeriod).isBefore(now);
+            if (!retired || entry == signing) {
+                verification.put(entry.id(), entry.verificationKey());
+                if (entry.verificationKey() instanceof PublicKey publicKey) {
+                    jwks.add(Jwks.builder().key(publicKey).id(entry.id()).build());
+                }
+            }
+        }
+
+        Snapshot previous = snapshot;
+        snapshot = new Snapshot(signing, Map.copyOf(verification), List.copyOf(jwks));
+        if (previous != null && !previous.signing().id().equals(signing.id())) {
+            log.info("JWT signing key rotated from {} to {}", previous.signing().id(), signing.id());
+        }
+    }
+
+    // Inline secrets are fixed for the life of the instance, so "first loaded" is when the source was built.
+    static KeySource keySource(String location, String password, String secrets, Duration activationDelay,
+                                       Clock clock) {
+        Instant inlineActivation = clock.instant().plus(activationDelay);
+        return () -> {
+            List<KeyEntry> loaded = new ArrayList<>();
+            if (!location.isBlank()) {
+                loaded.addAll(loadKeyStore(Path.of(location), password.toCharArray(), activationDelay));
+            }
+            if (!secrets.isBlank()) {
+                loaded.addAll(parseSecrets(secrets, inlineActivation));
+            }
+            return loaded;
+        };
+    }
+
+    private static List<KeyEntry> loadKeyStore(Path path, char[] password, Duration activationDelay)
+            throws JWTKeyGenerationException {
+        try (InputStream in = Files.newInputStream(path)) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+            KeyStore.PasswordProtection protection = new KeyStore.PasswordProtection(password);
+
+            List<KeyEntry> loaded = new ArrayList<>();
+            for (String alias : Collections.list(keyStore.aliases())) {
+                Instant activatesAt = keyStore.getCreationDate(alias).toInstant().plus(activationDelay);
+                KeyStore.Entry entry = keyStore.getEntry(alias, protection);
+                if (entry instanceof KeyStore.SecretKeyEntry secret) {
+                    SecretKey key = Keys.hmacShaKeyFor(secret.getSecretKey().getEncoded());
+                    loaded.add(new KeyEntry(alias, key, key, activatesAt));
+                } else if (entry instanceof KeyStore.PrivateKeyEntry pair) {
+                    loaded.add(new KeyEntry(alias, pair.getPrivateKey(), pair.getCertificate().getPublicKey(), activatesAt));
+                }
+            }
+            return loaded;
+        } catch (Exception e) {
+            throw new JWTKeyGenerationException("Failed to load JWT key ring from " + path, e);
+        }
+    }
+
+    static List<KeyEntry> parseSecrets(String secrets, Instant defaultActivation) throws JWTKeyGenerationException {
+        List<KeyEntry> loaded = new ArrayList<>();
+        for (String spec : secrets.split(",")) {
+            String trimmed = spec.trim();
+            int colon = trimmed.indexOf(':');
+            int at = trimmed.indexOf('@');
+            if (colon <= 0) {
+                throw new JWTKeyGenerationException("Invalid JWT secret entry, expected kid:base64[@instant]", null);
+            }
+            try {
+                String encoded = trimmed.substring(colon + 1, at < 0 ? trimmed.length() : at);
+                SecretKey key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(encoded));
+                Instant activatesAt = at < 0 ? defaultActivation : Instant.parse(trimmed.substring(at + 1));
+                loaded.add(new KeyEntry(trimmed.substring(0, colon), key, key, activatesAt));
+            } catch (RuntimeException e) {
+                throw new JWTKeyGenerationException("Invalid JWT secret entry " + trimmed.substring(0, colon), e);
+            }
+        }
+        return loaded;
+    }
+
+    private static KeyEntry ephemeral() throws JWTKeyGenerationException {
+        try {
+            SecretKey key = KeyGenerator.getInstance("HmacSHA256").generateKey();
+            return new KeyEntry("local-" + UUID.randomUUID(), key, key, Instant.EPOCH);
+        } catch (Exception e) {
+            throw new JWTKeyGenerationException("Failed to generate secret key for JWT.", e);
+        }
+    }
+
+    @FunctionalInterface
+    interface KeySource {
+        List<KeyEntry> load() throws JWTKeyGenerationException;
+    }
+
+    public record KeyEntry(String id, Key signingKey, Key verificationKey, Instant activatesAt) {
+    }
+
+    private record Snapshot(KeyEntry signing, Map<String, Key> verification, List<Map<String, ?>> jwks) {
+    }
+}
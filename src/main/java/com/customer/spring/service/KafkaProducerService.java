@@ -1,19 +1,117 @@
 package com.customer.spring.service;
 
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Sends on the producer's own I/O thread: {@code send} only appends to the producer buffer, and
+ * the delivery callback records the outcome and latency. Callers never block on the broker and
+ * never see a send failure; failures are logged and counted.
+ * <p>
+ * {@code send} itself can still block for up to {@code max.block.ms} while the broker is
+ * unreachable, so fire-and-forget broadcasts go through {@link #broadcast} and are sent from the
+ * async executor rather than the request thread.
+ * <p>
+ * Binary values go through a second producer built from the same configuration with a byte
+ * array value serializer (see {@code KafkaConfig}), so both share the tuning in
+ * {@code spring.kafka.producer.*}.
+ * <p>
+ * Each delivery is recorded in the {@code kafka.send} timer, tagged by topic and outcome.
+ */
 @Service
 public class KafkaProducerService {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaProducerService.class);
+
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> binaryKafkaTemplate;
+    private final Executor broadcastExecutor;
+    private final Meter.MeterProvider<Timer> sendTimer;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
 
-    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate) {
+    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate,
+                                KafkaTemplate<String, byte[]> binaryKafkaTemplate,
+                                @Qualifier("asyncExecutor") Executor broadcastExecutor,
+                                MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
+        this.binaryKafkaTemplate = binaryKafkaTemplate;
+        this.broadcastExecutor = broadcastExecutor;
+        this.sendTimer = Timer.builder("kafka.send").withRegistry(meterRegistry);
     }
 
-    @Async("asyncExecutor")
     public void sendMessage(String topic, String message) {
-        kafkaTemplate.send(topic, message);
+        sendMessage(topic, null, message);
+    }
+
+    public CompletableFuture<SendResult<String, String>> sendMessage(String topic, String key, String message) {
+        return track(topic, key, () -> kafkaTemplate.send(topic, key, message));
+    }
+
+    /**
+     * Sends from the async executor and returns at once; the outcome is only logged and counted.
+     */
+    public void broadcast(String topic, String key, String message) {
+        try {
+            broadcastExecutor.execute(() -> sendMessage(topic, key, message));
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Failed to send message to topic {} with key {}: {}", topic, key, e.getMessage());
+        }
+    }
+
+    public CompletableFuture<SendResult<String, byte[]>> sendBytes(String topic, String key, byte[] value) {
+        return track(topic, key, () -> binaryKafkaTemplate.send(topic, key, value));
+    }
+
+    private <T> CompletableFuture<T> track(String topic, String key, Supplier<CompletableFuture<T>> send) {
+        long startedAt = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = send.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, ex) -> {
+            long elapsed = System.nanoTime() - startedAt;
+            latencyNanos.add(elapsed);
+            maxLatencyNanos.accumulateAndGet(elapsed, Math::max);
+            sendTimer.withTags("topic", topic, "outcome", ex == null ? "success" : "failure")
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            if (ex == null) {
+                sent.increment();
+            } else {
+                failed.increment();
+                log.warn("Failed to send message to topic {} with key {}: {}", topic, key, ex.getMessage());
+            }
+        });
+    }
+
+    public Map<String, Object> stats() {
+        long completed = sent.sum() + failed.sum();
+        Map<String, Object> response = new HashMap<>();
+        response.put("sent_count", sent.sum());
+        response.put("failed_count", failed.sum());
+        response.put("latency_mean_ms", completed == 0 ? 0.0 : latencyNanos.sum() / 1_000_000.0 / completed);
+        response.put("latency_max_ms", maxLatencyNanos.get() / 1_000_000.0);
+        return response;
     }
 }
@@ -3,20 +3,36 @@ package com.customer.spring.service;
 import com.customer.spring.entity.UserPrincipal;
 import com.customer.spring.entity.Users;
 import com.customer.spring.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
-public class MyUserDetailsService implements UserDetailsService {
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final BasicCredentialCache basicCredentialCache;
+    private final Set<String> adminUsernames;
 
-    public MyUserDetailsService(UserRepository userRepository){
+    public MyUserDetailsService(UserRepository userRepository, BasicCredentialCache basicCredentialCache,
+                                @Value("${security.admin-usernames:}") String[] adminUsernames){
         this.userRepository = userRepository;
+        this.basicCredentialCache = basicCredentialCache;
+        this.adminUsernames = Arrays.stream(adminUsernames)
+                .map(String::trim)
+                .filter(username -> !username.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     @Override
@@ -26,7 +42,25 @@ public class MyUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("User not found");
         }
         Users user = optionalUser.get();
-        return new UserPrincipal(user);
+        return new UserPrincipal(user, authorities(user.getUsername()));
+    }
+
+    // Called by the authentication provider after a login whose stored hash uses outdated parameters.
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        Users user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        user.setPassword(newPassword);
+        Users saved = userRepository.save(user);
+        basicCredentialCache.invalidate(saved.getUsername());
+        return new UserPrincipal(saved, authorities(saved.getUsername()));
+    }
+
+    // Every user has USER; the usernames listed in security.admin-usernames also get ADMIN.
+    private List<GrantedAuthority> authorities(String username) {
+        return adminUsernames.contains(username)
+                ? List.of(new SimpleGrantedAuthority("USER"), new SimpleGrantedAuthority("ADMIN"))
+                : List.of(new SimpleGrantedAuthority("USER"));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+package com.customer.spring.service;
+
+import com.customer.spring.entity.OutboxEvent;
+import com.customer.spring.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes committed outbox events to Kafka. Each batch is locked with {@code FOR UPDATE SKIP
+ * LOCKED}, sent without waiting between records, and deleted in one statement once delivered.
+ * <p>
+ * Only one replica relays at a time: each batch transaction first takes a PostgreSQL advisory
+ * lock, and a replica that does not get it skips the run. Two replicas draining disjoint batches
+ * in parallel could otherwise send a later event for a key before an earlier one. Set
+ * {@code outbox.relay.exclusive=false} on databases without advisory locks, with a single instance.
+ * <p>
+ * Delivery is at least once: events are deleted only up to the
+ * first failed send, so the failed event and everything after it are sent again, in order, by
+ * the next run. The send timeout covers the whole batch, including time spent blocked in the
+ * producer, and no more records are handed over once a send has failed or the timeout has passed.
+ * <p>
+ * One run keeps draining while batches come back full, but starts no new batch once the drain
+ * budget has passed, so a large backlog does not hold a scheduler thread indefinitely.
+ * <p>
+ * The backlog is exported as the {@code outbox.pending} and {@code outbox.oldest.pending.age}
+ * gauges, read from the table at scrape time so they keep rising while the relay is stuck; each
+ * batch's lag is recorded in the {@code outbox.relay.lag} timer.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    // Advisory lock key shared by every replica; the bytes spell "outbox".
+    static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final boolean exclusive;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration drainBudget;
+
+    private final LongAdder relayed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong lastBatchNanos = new AtomicLong();
+    private final Counter relayedCounter;
+    private final Counter failedCounter;
+    private final Timer lagTimer;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaProducerService kafkaProducerService,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${outbox.relay.exclusive:true}") boolean exclusive,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.send-timeout:PT30S}") Duration sendTimeout,
+                       @Value("${outbox.relay.drain-budget:PT5S}") Duration drainBudget,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.exclusive = exclusive;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.drainBudget = drainBudget;
+        this.relayedCounter = Counter.builder("outbox.relayed").register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.failed").register(meterRegistry);
+        this.lagTimer = Timer.builder("outbox.relay.lag").register(meterRegistry);
+        Gauge.builder("outbox.pending", outboxEventRepository, OutboxEventRepository::count).register(meterRegistry);
+        Gauge.builder("outbox.oldest.pending.age", this, relay -> relay.oldestPendingAgeMillis() / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:PT0.5S}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        // A full batch means more may be waiting; keep draining until a batch comes back short
+        // or the budget is spent, and leave the rest to the next run.
+        long deadline = System.nanoTime() + drainBudget.toNanos();
+        int delivered;
+        do {
+            delivered = relayBatch();
+        } while (delivered == batchSize && System.nanoTime() - deadline < 0);
+    }
+
+    int relayBatch() {
+        Integer delivered = transactionTemplate.execute(status -> {
+            long startedAt = System.nanoTime();
+            if (exclusive && !outboxEventRepository.tryAdvisoryXactLock(RELAY_LOCK_KEY)) {
+                skipped.increment();
+                return 0;
+            }
+            List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            // Each send may block for up to max.block.ms, so the deadline is checked before every one.
+            long deadline = startedAt + sendTimeout.toNanos();
+            AtomicBoolean sendFailed = new AtomicBoolean();
+            List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                if (sendFailed.get() || System.nanoTime() - deadline >= 0) {
+                    break;
+                }
+                CompletableFuture<?> send = kafkaProducerService.sendBytes(event.getTopic(), event.getEventKey(), event.getPayload());
+                send.whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        sendFailed.set(true);
+                    }
+                });
+                sends.add(send);
+            }
+
+            List<Long> deliveredIds = new ArrayList<>(sends.size());
+            for (int i = 0; i < sends.size() && awaitDelivery(sends.get(i), deadline); i++) {
+                deliveredIds.add(batch.get(i).getId());
+            }
+            if (!deliveredIds.isEmpty()) {
+                outboxEventRepository.deleteAllByIdInBatch(deliveredIds);
+            }
+            record(batch, deliveredIds.size(), System.nanoTime() - startedAt);
+            return deliveredIds.size();
+        });
+        return delivered == null ? 0 : delivered;
+    }
+
+    public Map<String, Object> stats() {
+        long batchNanos = lastBatchNanos.get();
+        Map<String, Object> response = new HashMap<>();
+        response.put("relayed_count", relayed.sum());
+        response.put("failed_count", failed.sum());
+        response.put("batch_count", batches.sum());
+        response.put("skipped_count", skipped.sum());
+        response.put("pending_count", outboxEventRepository.count());
+        response.put("oldest_pending_age_ms", oldestPendingAgeMillis());
+        response.put("last_lag_ms", lastLagMillis.get());
+        response.put("max_lag_ms", maxLagMillis.get());
+        response.put("last_batch_size", lastBatchSize.get());
+        response.put("last_batch_events_per_second", batchNanos == 0 ? 0.0 : lastBatchSize.get() * 1_000_000_000.0 / batchNanos);
+        return response;
+    }
+
+    private long oldestPendingAgeMillis() {
+        Instant oldest = outboxEventRepository.findOldestCreatedAt();
+        return oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis();
+    }
+
+    private boolean awaitDelivery(CompletableFuture<?> send, long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Lag is measured from the commit side (createdAt) to delivery of the batch's oldest event.
+    private void record(List<OutboxEvent> batch, int delivered, long elapsedNanos) {
+        batches.increment();
+        relayed.add(delivered);
+        relayedCounter.increment(delivered);
+        lastBatchSize.set(delivered);
+        lastBatchNanos.set(elapsedNanos);
+        if (delivered < batch.size()) {
+            failed.add(batch.size() - delivered);
+            failedCounter.increment(batch.size() - delivered);
+            log.warn("Outbox relay delivered {} of {} events; the rest will be retried", delivered, batch.size());
+        }
+        if (delivered > 0) {
+            long lag = Duration.between(batch.get(0).getCreatedAt(), Instant.now()).toMillis();
+            lastLagMillis.set(lag);
+            maxLagMillis.accumulateAndGet(lag, Math::max);
+            lagTimer.record(lag, TimeUnit.MILLISECONDS);
+        }
+    }
+}
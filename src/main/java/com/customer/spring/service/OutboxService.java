@@ -0,0 +1,59 @@
+package com.customer.spring.service;
+
+import com.customer.spring.entity.OutboxEvent;
+import com.customer.spring.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records change events in the outbox table instead of sending them to Kafka. An event must be
+ * appended inside the transaction that makes the change, so it is committed or rolled back with
+ * it; {@link OutboxRelay} publishes committed events afterwards.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Appends a JSON event of the form {@code {"type", "occurred_at", "data"}}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String topic, String key, String type, Object data) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", type);
+        payload.put("occurred_at", Instant.now().toString());
+        payload.put("data", data);
+        try {
+            append(topic, key, objectMapper.writeValueAsBytes(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + type + " event", e);
+        }
+    }
+
+    /**
+     * Appends an event whose value is already encoded, sent to Kafka byte for byte.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String topic, String key, byte[] payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setTopic(topic);
+        event.setEventKey(key);
+        event.setPayload(payload);
+        event.setCreatedAt(Instant.now());
+        outboxEventRepository.save(event);
+    }
+}
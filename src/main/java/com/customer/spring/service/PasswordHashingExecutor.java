@@ -0,0 +1,171 @@
+package com.customer.spring.service;
+
+import com.customer.spring.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a fixed, CPU-sized pool with a bounded queue, so a login burst
+ * cannot occupy every request thread. When the queue is full the caller is rejected right
+ * away with {@link ServiceOverloadedException} instead of waiting, and a caller whose hash has
+ * not finished within the wait timeout gets the same exception and its task is cancelled. The
+ * queue defaults to four tasks per thread, so a queued hash does not outlive that timeout.
+ * <p>
+ * Hash time is recorded in the {@code password.hashing} timer, tagged by operation, and the time
+ * spent queued for a thread in {@code password.hashing.queue.wait}.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long retryAfterSeconds;
+    private final long waitTimeoutNanos;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final Meter.MeterProvider<Timer> hashTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+    private final Counter timedOutCounter;
+
+    public PasswordHashingExecutor(@Value("${password-hashing.threads:0}") int threads,
+                                   @Value("${password-hashing.queue-capacity:0}") int queueCapacity,
+                                   @Value("${password-hashing.retry-after-seconds:1}") long retryAfterSeconds,
+                                   @Value("${password-hashing.wait-timeout:PT2S}") Duration waitTimeout,
+                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        queueCapacity = queueCapacity > 0 ? queueCapacity : 4 * poolSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "PasswordHash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.queueCapacity = queueCapacity;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.hashTimer = Timer.builder("password.hashing").withRegistry(meterRegistry);
+        this.waitTimer = Timer.builder("password.hashing.queue.wait").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected").register(meterRegistry);
+        this.timedOutCounter = Counter.builder("password.hashing.timed.out").register(meterRegistry);
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> hashing) {
+        return execute("other", hashing);
+    }
+
+    private <T> T execute(String operation, Supplier<T> hashing) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                waitNanos.add(startedAt - submittedAt);
+                waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return hashing.get();
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    hashCount.increment();
+                    hashNanos.add(elapsed);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                    hashTimer.withTags("operation", operation).record(elapsed, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            rejectedCounter.increment();
+            throw new ServiceOverloadedException("Too many concurrent authentication requests, please retry later",
+                    retryAfterSeconds);
+        }
+
+        try {
+            return future.get(waitTimeoutNanos - (System.nanoTime() - submittedAt), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // A queued task is dropped from the queue; a running one is interrupted, and its result discarded.
+            future.cancel(true);
+            executor.remove((Runnable) future);
+            timedOut.increment();
+            timedOutCounter.increment();
+            throw new ServiceOverloadedException("Authentication is taking too long under load, please retry later",
+                    retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Wraps {@code delegate} so that {@code encode} and {@code matches} run on this executor.
+     */
+    public PasswordEncoder bounded(PasswordEncoder delegate) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return execute("encode", () -> delegate.encode(rawPassword));
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return execute("matches", () -> delegate.matches(rawPassword, encodedPassword));
+            }
+
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return delegate.upgradeEncoding(encodedPassword);
+            }
+        };
+    }
+
+    public Map<String, Object> stats() {
+        long count = hashCount.sum();
+        Map<String, Object> response = new HashMap<>();
+        response.put("threads", executor.getMaximumPoolSize());
+        response.put("active", executor.getActiveCount());
+        response.put("queue_depth", executor.getQueue().size());
+        response.put("queue_capacity", queueCapacity);
+        response.put("rejected_count", rejected.sum());
+        response.put("timed_out_count", timedOut.sum());
+        response.put("hash_count", count);
+        response.put("hash_mean_ms", count == 0 ? 0.0 : hashNanos.sum() / 1_000_000.0 / count);
+        response.put("hash_max_ms", maxHashNanos.get() / 1_000_000.0);
+        response.put("queue_wait_mean_ms", count == 0 ? 0.0 : waitNanos.sum() / 1_000_000.0 / count);
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
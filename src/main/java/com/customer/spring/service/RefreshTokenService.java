@@ -0,0 +1,117 @@
+package com.customer.spring.service;
+
+import com.customer.spring.entity.RefreshToken;
+import com.customer.spring.exception.AuthenticationFailedException;
+import com.customer.spring.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues long-lived opaque refresh tokens and exchanges them for new access tokens without a
+ * password hash. Each refresh rotates the token; presenting an already rotated token revokes
+ * every token issued from the same login.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JWTService jwtService;
+    private final MyUserDetailsService userDetailsService;
+    private final Duration ttl;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JWTService jwtService,
+                               MyUserDetailsService userDetailsService,
+                               @Value("${jwt.refresh-token.ttl:14d}") Duration ttl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.ttl = ttl;
+    }
+
+    @Transactional
+    public String issue(String username) {
+        refreshTokenRepository.deleteExpired(username, Instant.now());
+        return create(username, UUID.randomUUID().toString());
+    }
+
+    // The family revocation must commit even though the request fails.
+    @Transactional(noRollbackFor = AuthenticationFailedException.class)
+    public TokenPair refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new AuthenticationFailedException("Refresh token is required");
+        }
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new AuthenticationFailedException("Invalid refresh token"));
+        if (stored.getExpiresAt().isBefore(Instant.now())) {
+            throw new AuthenticationFailedException("Refresh token has expired");
+        }
+        if (refreshTokenRepository.markUsed(stored.getId()) == 0) {
+            refreshTokenRepository.revokeFamily(stored.getFamilyId());
+            throw new AuthenticationFailedException("Refresh token has been revoked");
+        }
+
+        UserDetails user = userDetailsService.loadUserByUsername(stored.getUsername());
+        List<String> authorities = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        return new TokenPair(jwtService.generateToken(user.getUsername(), authorities),
+                create(user.getUsername(), stored.getFamilyId()));
+    }
+
+    /**
+     * Revokes every token from the same login as {@code refreshToken}, if it exists and belongs
+     * to {@code username}.
+     */
+    @Transactional
+    public boolean revoke(String refreshToken, String username) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return false;
+        }
+        return refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .filter(stored -> stored.getUsername().equals(username))
+                .map(stored -> refreshTokenRepository.revokeFamily(stored.getFamilyId()) > 0)
+                .orElse(false);
+    }
+
+    private String create(String username, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUsername(username);
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setExpiresAt(Instant.now().plus(ttl));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record TokenPair(String accessToken, String refreshToken) {
+    }
+}
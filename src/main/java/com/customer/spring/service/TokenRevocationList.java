@@ -0,0 +1,135 @@
+package com.customer.spring.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory set of revoked access-token ids, checked on every authenticated request without a
+ * database query. Entries are grouped into buckets by token expiration, so a lookup touches the
+ * one bucket its token can be in, and a bucket is dropped as a whole once every token in it has
+ * expired. Each bucket has a Bloom filter that answers the common "not revoked" case and an
+ * exact set that confirms a Bloom hit.
+ * <p>
+ * Revocations are published on {@link #REVOCATION_TOPIC} and every replica replays the topic from
+ * the start with its own consumer group, so the topic's retention must exceed the access-token
+ * lifetime.
+ */
+@Component
+public class TokenRevocationList {
+
+    public static final String REVOCATION_TOPIC = "token-revocation";
+
+    private static final int BLOOM_HASHES = 4;
+
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+    private final KafkaProducerService kafkaProducerService;
+    private final long bucketWidthMillis;
+    private final int bloomBits;
+
+    public TokenRevocationList(KafkaProducerService kafkaProducerService,
+                               @Value("${jwt.revocation.bucket-width:PT1M}") Duration bucketWidth,
+                               @Value("${jwt.revocation.bloom-bits:65536}") int bloomBits) {
+        this.kafkaProducerService = kafkaProducerService;
+        this.bucketWidthMillis = bucketWidth.toMillis();
+        this.bloomBits = Math.max(64, Integer.highestOneBit(bloomBits));
+    }
+
+    public boolean isRevoked(JWTService.VerifiedToken token) {
+        if (token.id() == null || token.expiration() == null) {
+            return false;
+        }
+        Bucket bucket = buckets.get(bucketOf(token.expiration().getTime()));
+        return bucket != null && bucket.contains(token.id());
+    }
+
+    public void revoke(String tokenId, Date expiration) {
+        if (add(tokenId, expiration.getTime())) {
+            kafkaProducerService.broadcast(REVOCATION_TOPIC, tokenId, tokenId + ":" + expiration.getTime());
+        }
+    }
+
+    @KafkaListener(topics = REVOCATION_TOPIC,
+            groupId = "token-revocation-${random.uuid}",
+            autoStartup = "${jwt.revocation.sync.enabled:true}",
+            properties = "auto.offset.reset=earliest")
+    public void onRevocation(String message) {
+        int separator = message.lastIndexOf(':');
+        add(message.substring(0, separator), Long.parseLong(message.substring(separator + 1)));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.bucket-width:PT1M}")
+    public void purgeExpired() {
+        // A bucket's last token expires at the start of the next bucket.
+        buckets.headMap(bucketOf(System.currentTimeMillis())).clear();
+    }
+
+    private boolean add(String tokenId, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return false;
+        }
+        buckets.computeIfAbsent(bucketOf(expiresAtMillis), b -> new Bucket(bloomBits)).add(tokenId);
+        return true;
+    }
+
+    private long bucketOf(long epochMillis) {
+        return epochMillis / bucketWidthMillis;
+    }
+
+    private static final class Bucket {
+        private final AtomicLongArray bloom;
+        private final int mask;
+        private final Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        private Bucket(int bits) {
+            this.bloom = new AtomicLongArray(bits / 64);
+            this.mask = bits - 1;
+        }
+
+        // The id is in the exact set before its Bloom bits are set, so a Bloom hit can always be confirmed.
+        private void add(String id) {
+            ids.add(id);
+            long hash = hash(id);
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = index(hash, i);
+                long bitMask = 1L << (bit & 63);
+                bloom.getAndUpdate(bit >>> 6, word -> word | bitMask);
+            }
+        }
+
+        private boolean contains(String id) {
+            long hash = hash(id);
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = index(hash, i);
+                if ((bloom.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return ids.contains(id);
+        }
+
+        private int index(long hash, int i) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            return (h1 + i * h2) & mask;
+        }
+
+        private static long hash(String id) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < id.length(); i++) {
+                hash = (hash ^ id.charAt(i)) * 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            return hash ^ (hash >>> 33);
+        }
+    }
+}
@@ -5,34 +5,53 @@ import com.customer.spring.exception.AuthenticationFailedException;
 import com.customer.spring.exception.ConflictException;
 import com.customer.spring.exception.InvalidPasswordException;
 import com.customer.spring.repository.UserRepository;
+import io.jsonwebtoken.security.SignatureException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class UserService {
 
+    public static final String USER_TOPIC = "user-topic";
+    public static final String USER_REGISTERED = "USER_REGISTERED";
+
     private final UserRepository userRepository;
     private final AuthenticationManager authManager;
     private final JWTService jwtService;
-    private KafkaProducerService kafkaProd;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder encoder;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList tokenRevocationList;
 
     public UserService(UserRepository userRepository,
                        AuthenticationManager authManager,
-                       JWTService jwtService, KafkaProducerService kafka) {
+                       JWTService jwtService, OutboxService outboxService,
+                       TransactionTemplate transactionTemplate,
+                       PasswordEncoder encoder,
+                       RefreshTokenService refreshTokenService,
+                       TokenRevocationList tokenRevocationList) {
         this.userRepository = userRepository;
         this.authManager = authManager;
         this.jwtService = jwtService;
-        this.kafkaProd = kafka;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.encoder = encoder;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
-    private BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(12);
-
 
     public Users register(Users user){
 
@@ -45,8 +64,14 @@ public class UserService {
         }
 
         user.setPassword(encoder.encode(user.getPassword()));
-        kafkaProd.sendMessage("user-topic", "Message sent from Customer API register end point");
-        return userRepository.save(user);
+        return transactionTemplate.execute(status -> {
+            Users saved = userRepository.save(user);
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("id", saved.getId());
+            event.put("username", saved.getUsername());
+            outboxService.append(USER_TOPIC, saved.getUsername(), USER_REGISTERED, event);
+            return saved;
+        });
     }
 
     public String verify(Users user) {
@@ -55,7 +80,10 @@ public class UserService {
                     new UsernamePasswordAuthenticationToken(user.getUsername(), user.getPassword())
             );
             if (authentication.isAuthenticated()) {
-                return jwtService.generateToken(user.getUsername());
+                List<String> authorities = authentication.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList();
+                return jwtService.generateToken(user.getUsername(), authorities);
             }
         } catch (AuthenticationException e) {
             throw new AuthenticationFailedException("Invalid username or password");
@@ -63,6 +91,35 @@ public class UserService {
         return "Unable to verify";
     }
 
+    public void logout(String username, String accessToken, String refreshToken) {
+        revoke(username, accessToken);
+        refreshTokenService.revoke(refreshToken, username);
+    }
+
+    /**
+     * Revokes an access token (a JWT) or a refresh token owned by {@code username}. Tokens that
+     * are invalid, expired or owned by someone else are ignored and reported as not revoked.
+     */
+    public boolean revoke(String username, String token) {
+        if (token == null || token.isBlank()) {
+            return false;
+        }
+        if (token.indexOf('.') < 0) {
+            return refreshTokenService.revoke(token, username);
+        }
+        JWTService.VerifiedToken verified;
+        try {
+            verified = jwtService.verify(token);
+        } catch (SignatureException | IllegalArgumentException e) {
+            return false;
+        }
+        if (verified.id() == null || !verified.username().equals(username)) {
+            return false;
+        }
+        tokenRevocationList.revoke(verified.id(), verified.expiration());
+        return true;
+    }
+
     public boolean validatePassword(String password) {
         if(password == null || password.length() < 8){
             throw new InvalidPasswordException("Password does not meet the required criteria");
@@ -74,14 +131,15 @@ public class UserService {
 
         String specialCharacters = "!@#$%^&*()-+";
 
-        for (char c : password.toCharArray()) {
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
             if (Character.isUpperCase(c)) {
                 hasUppercase = true;
             } else if (Character.isLowerCase(c)) {
                 hasLowercase = true;
             } else if (Character.isDigit(c)) {
                 hasDigit = true;
-            } else if (specialCharacters.contains(String.valueOf(c))) {
+            } else if (specialCharacters.indexOf(c) >= 0) {
                 hasSpecialChar = true;
             }
         }
@@ -0,0 +1,49 @@
+-- Runs after Hibernate's ddl-auto (see spring.jpa.defer-datasource-initialization).
+-- Every statement must be idempotent, it is executed on each startup.
+
+-- customers.id moved from IDENTITY to a pooled sequence; make sure the sequence
+-- never hands out ids that already exist from the identity era.
+SELECT setval('customers_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM customers))
+WHERE (SELECT last_value FROM customers_seq) < (SELECT COALESCE(MAX(id), 0) FROM customers);
+
+-- customers.version was added for optimistic locking; rows from before it start at version 0.
+UPDATE customers SET version = 0 WHERE version IS NULL;
+
+-- Customer email and phone number are unique, and creates rely on the violation instead of a
+-- pre-check SELECT. ddl-auto=update only logs it when it cannot add the constraints, so create
+-- them here under the same names; on a table with duplicates startup fails rather than running
+-- without uniqueness. To find and clear duplicates first (keeps the oldest row of each group):
+--   SELECT customer_email, COUNT(*) FROM customers GROUP BY customer_email HAVING COUNT(*) > 1;
+--   UPDATE customers c SET customer_email = NULL WHERE EXISTS (SELECT 1 FROM customers o
+--       WHERE o.customer_email = c.customer_email AND o.id < c.id);
+-- and the same for customer_phone_number, or merge the rows by hand where both copies matter.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_customers_customer_email ON customers (customer_email);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_customers_customer_phone_number ON customers (customer_phone_number);
+
+-- Every login deletes the user's expired refresh tokens; without this index that DELETE scans
+-- and locks the whole table.
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_username_expires_at ON refresh_tokens (username, expires_at);
+
+-- Trigram GIN indexes serve the substring (ILIKE '%...%') filters of the customer search,
+-- which no B-tree index can. Patterns shorter than three characters still scan.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_customers_name_trgm ON customers USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customers_email_trgm ON customers USING gin (customer_email gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customers_phone_number_trgm ON customers USING gin (customer_phone_number gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customers_address_trgm ON customers USING gin (address gin_trgm_ops);
+
+-- outbox_events ids are no longer pooled (allocationSize = 1), so each event takes the next
+-- value in order; a sequence created for the old mapping still steps by 50.
+ALTER SEQUENCE IF EXISTS outbox_events_seq INCREMENT BY 1;
+
+-- outbox_events.payload changed from text to bytea, which ddl-auto=update cannot apply to an
+-- existing column. Pending JSON events keep their bytes, as UTF-8. The block body is a quoted
+-- string rather than $$...$$, so the script runner does not split it at its semicolons.
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = ''outbox_events''
+                 AND column_name = ''payload'' AND data_type = ''text'') THEN
+        ALTER TABLE outbox_events ALTER COLUMN payload TYPE bytea USING convert_to(payload, ''UTF8'');
+    END IF;
+END';
@@ -0,0 +1,90 @@
+package com.customer.spring.benchmark;
+
+import com.customer.spring.dto.CustomerDTO;
+import com.customer.spring.entity.Customer;
+import com.customer.spring.mapper.CustomerMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-customer mapping between entity and DTO, and serializing a search response map the
+ * way the controller returns it, with an ObjectMapper configured like Spring Boot's.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomerMappingBenchmark {
+
+    private static final CustomerMapper CUSTOMER_MAPPER = CustomerMapper.INSTANCE;
+
+    private Customer customer;
+    private CustomerDTO customerDTO;
+
+    @Setup
+    public void setUp() {
+        customer = customer(12_345);
+        customerDTO = CUSTOMER_MAPPER.toDto(customer);
+    }
+
+    @State(Scope.Benchmark)
+    public static class SearchPage {
+
+        @Param({"10", "100"})
+        public int pageSize;
+
+        private ObjectMapper objectMapper;
+        private Map<String, Object> response;
+
+        @Setup
+        public void setUp() {
+            objectMapper = Jackson2ObjectMapperBuilder.json().build();
+            List<CustomerDTO> results = new ArrayList<>();
+            for (int i = 0; i < pageSize; i++) {
+                results.add(CUSTOMER_MAPPER.toDto(customer(i)));
+            }
+            response = new HashMap<>();
+            response.put("total_count", 1_000L);
+            response.put("page_count", 1_000 / pageSize);
+            response.put("current_page", 0);
+            response.put("results", results);
+        }
+    }
+
+    @Benchmark
+    public CustomerDTO toDto() {
+        return CUSTOMER_MAPPER.toDto(customer);
+    }
+
+    @Benchmark
+    public Customer toEntity() {
+        return CUSTOMER_MAPPER.toEntity(customerDTO);
+    }
+
+    @Benchmark
+    public byte[] serializeSearchResponse(SearchPage page) throws Exception {
+        return page.objectMapper.writeValueAsBytes(page.response);
+    }
+
+    private static Customer customer(long id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setName("Benchmark Customer " + id);
+        customer.setIndustry("Tech");
+        customer.setCompanySize(250);
+        customer.setCustomerEmail("customer" + id + "@example.com");
+        customer.setCustomerPhoneNumber("555-" + id);
+        customer.setAddress(id + " Main Street, Springfield");
+        customer.setStatus("enabled");
+        return customer;
+    }
+}
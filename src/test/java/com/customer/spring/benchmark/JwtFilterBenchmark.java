@@ -0,0 +1,136 @@
+package com.customer.spring.benchmark;
+
+import com.customer.spring.config.JwtFilter;
+import com.customer.spring.entity.UserPrincipal;
+import com.customer.spring.entity.Users;
+import com.customer.spring.service.JWTService;
+import com.customer.spring.service.JwtKeyRing;
+import com.customer.spring.service.KafkaProducerService;
+import com.customer.spring.service.MyUserDetailsService;
+import com.customer.spring.service.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Per-request cost of JWT authentication in {@link JwtFilter}: the former path that parsed
+ * and verified the token three times and rebuilt the key each time, the parse-once path,
+ * the parse-once path with the verified-token cache, and the stateless principal mode
+ * (the user lookup is a mock here, so that difference understates the saved DB query), and
+ * the overhead on requests that carry no bearer token at all.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    private static final String USERNAME = "benchmark_user";
+
+    private JwtFilter cachedFilter;
+    private JwtFilter uncachedFilter;
+    private JwtFilter statelessFilter;
+    private String cachedToken;
+    private String uncachedToken;
+    private String legacySecret;
+    private String legacyToken;
+    private UserPrincipal principal;
+
+    @Setup
+    public void setUp() throws Exception {
+        Users user = new Users();
+        user.setUsername(USERNAME);
+        user.setPassword("ignored");
+        principal = new UserPrincipal(user);
+
+        MyUserDetailsService userDetailsService = mock(MyUserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(USERNAME)).thenReturn(principal);
+        ApplicationContext context = mock(ApplicationContext.class);
+        when(context.getBean(MyUserDetailsService.class)).thenReturn(userDetailsService);
+
+        JwtKeyRing keyRing = new JwtKeyRing("", "", "", Duration.ZERO, Duration.ofHours(1));
+        JWTService cachedService = new JWTService(keyRing, 10_000, new SimpleMeterRegistry());
+        JWTService uncachedService = new JWTService(keyRing, 0, new SimpleMeterRegistry());
+        TokenRevocationList revocationList = new TokenRevocationList(mock(KafkaProducerService.class), Duration.ofMinutes(1), 65_536);
+        cachedFilter = new JwtFilter(cachedService, revocationList, context, false, new SimpleMeterRegistry());
+        uncachedFilter = new JwtFilter(uncachedService, revocationList, context, false, new SimpleMeterRegistry());
+        statelessFilter = new JwtFilter(cachedService, revocationList, context, true, new SimpleMeterRegistry());
+        cachedToken = cachedService.generateToken(USERNAME);
+        uncachedToken = uncachedService.generateToken(USERNAME);
+
+        SecretKey key = KeyGenerator.getInstance("HmacSHA256").generateKey();
+        legacySecret = Base64.getEncoder().encodeToString(key.getEncoded());
+        legacyToken = Jwts.builder()
+                .subject(USERNAME)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60 * 60 * 1000))
+                .signWith(legacyKey())
+                .compact();
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyClaims(legacyToken).getSubject();
+        return username.equals(principal.getUsername())
+                && legacyClaims(legacyToken).getSubject().equals(principal.getUsername())
+                && !legacyClaims(legacyToken).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public void filterParseOnce(Blackhole blackhole) throws Exception {
+        blackhole.consume(filter(uncachedFilter, uncachedToken));
+    }
+
+    @Benchmark
+    public void filterVerifiedTokenCache(Blackhole blackhole) throws Exception {
+        blackhole.consume(filter(cachedFilter, cachedToken));
+    }
+
+    @Benchmark
+    public void filterStatelessPrincipal(Blackhole blackhole) throws Exception {
+        blackhole.consume(filter(statelessFilter, cachedToken));
+    }
+
+    @Benchmark
+    public void filterWithoutToken(Blackhole blackhole) throws Exception {
+        blackhole.consume(filter(cachedFilter, null));
+    }
+
+    private Object filter(JwtFilter filter, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers/1");
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private Claims legacyClaims(String token) {
+        return Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(token).getPayload();
+    }
+
+    private SecretKey legacyKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(legacySecret));
+    }
+}
@@ -0,0 +1,68 @@
+package com.customer.spring.benchmark;
+
+import com.customer.spring.entity.UserPrincipal;
+import com.customer.spring.entity.Users;
+import com.customer.spring.service.JWTService;
+import com.customer.spring.service.JwtKeyRing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and check costs in {@link JWTService}: signing a new token as {@code /login}
+ * does, verifying a token the first time (signature and JSON parse) and again from the
+ * verified-token cache, and the claim comparison in {@code validateToken}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String USERNAME = "benchmark_user";
+
+    private JWTService cachedService;
+    private JWTService uncachedService;
+    private String token;
+    private JWTService.VerifiedToken verifiedToken;
+    private UserPrincipal principal;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtKeyRing keyRing = new JwtKeyRing("", "", "", Duration.ZERO, Duration.ofHours(1));
+        cachedService = new JWTService(keyRing, 10_000, new SimpleMeterRegistry());
+        uncachedService = new JWTService(keyRing, 0, new SimpleMeterRegistry());
+        token = cachedService.generateToken(USERNAME, List.of("USER"));
+        verifiedToken = cachedService.verify(token);
+
+        Users user = new Users();
+        user.setUsername(USERNAME);
+        user.setPassword("ignored");
+        principal = new UserPrincipal(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedService.generateToken(USERNAME, List.of("USER"));
+    }
+
+    @Benchmark
+    public JWTService.VerifiedToken verifyUncached() {
+        return uncachedService.verify(token);
+    }
+
+    @Benchmark
+    public JWTService.VerifiedToken verifyCached() {
+        return cachedService.verify(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return cachedService.validateToken(verifiedToken, principal);
+    }
+}
@@ -0,0 +1,87 @@
+package com.customer.spring.benchmark;
+
+import com.customer.spring.service.KafkaProducerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Send throughput of {@link KafkaProducerService} against an embedded single-node broker, with
+ * the Kafka client defaults and with the producer profile from {@code application.properties}.
+ * Each invocation sends a burst of keyed customer-sized records and waits for every delivery;
+ * eight threads stand in for concurrent request threads. With a single sender the profile's
+ * linger makes each burst wait, so it is not faster there.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class KafkaProducerBenchmark {
+
+    private static final String TOPIC = "benchmark-customers";
+    private static final int BURST = 1_000;
+    private static final String PAYLOAD = "{\"id\":12345,\"name\":\"Benchmark Customer\",\"customerEmail\":\"customer@example.com\","
+            + "\"customerPhoneNumber\":\"555-0100\",\"address\":\"1 Main Street, Springfield\",\"industry\":\"Tech\","
+            + "\"companySize\":250,\"status\":\"enabled\"}";
+
+    @Param({"defaults", "profile"})
+    public String producerConfig;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private DefaultKafkaProducerFactory<String, String> producerFactory;
+    private KafkaProducerService kafkaProducerService;
+
+    @Setup
+    public void setUp() throws Exception {
+        broker = new EmbeddedKafkaKraftBroker(1, 3, TOPIC);
+        broker.afterPropertiesSet();
+
+        Map<String, Object> config = new HashMap<>();
+        if ("profile".equals(producerConfig)) {
+            Properties properties = PropertiesLoaderUtils.loadAllProperties("application.properties");
+            KafkaProperties kafkaProperties = new Binder(new MapConfigurationPropertySource(properties))
+                    .bind("spring.kafka", KafkaProperties.class)
+                    .get();
+            config.putAll(kafkaProperties.buildProducerProperties(null));
+        }
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerFactory = new DefaultKafkaProducerFactory<>(config);
+        kafkaProducerService = new KafkaProducerService(new KafkaTemplate<>(producerFactory), null, Runnable::run,
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void sendBurst() {
+        CompletableFuture<?>[] deliveries = new CompletableFuture<?>[BURST];
+        for (int i = 0; i < BURST; i++) {
+            deliveries[i] = kafkaProducerService.sendMessage(TOPIC, "customer-" + i, PAYLOAD);
+        }
+        CompletableFuture.allOf(deliveries).join();
+    }
+
+    @TearDown
+    public void tearDown() {
+        producerFactory.destroy();
+        broker.destroy();
+    }
+}
@@ -0,0 +1,64 @@
+package com.customer.spring.benchmark;
+
+import com.customer.spring.service.JWTService;
+import com.customer.spring.service.KafkaProducerService;
+import com.customer.spring.service.TokenRevocationList;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cost of the per-request revocation check in {@link com.customer.spring.config.JwtFilter} with
+ * 10,000 revoked tokens spread over the access-token lifetime: a token in an empty bucket, a
+ * token that only the Bloom filter has to reject, and a revoked token.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenRevocationListBenchmark {
+
+    private TokenRevocationList revocationList;
+    private JWTService.VerifiedToken emptyBucket;
+    private JWTService.VerifiedToken notRevoked;
+    private JWTService.VerifiedToken revoked;
+
+    @Setup
+    public void setUp() {
+        revocationList = new TokenRevocationList(mock(KafkaProducerService.class), Duration.ofMinutes(1), 65_536);
+        long now = System.currentTimeMillis();
+        Date expiration = new Date(now + 3 * 60_000);
+        for (int i = 0; i < 10_000; i++) {
+            revocationList.revoke(UUID.randomUUID().toString(), new Date(now + 60_000 + (i % 5) * 60_000L));
+        }
+        String revokedId = UUID.randomUUID().toString();
+        revocationList.revoke(revokedId, expiration);
+
+        emptyBucket = new JWTService.VerifiedToken(UUID.randomUUID().toString(), "user", new Date(now + 3_600_000), List.of("USER"));
+        notRevoked = new JWTService.VerifiedToken(UUID.randomUUID().toString(), "user", expiration, List.of("USER"));
+        revoked = new JWTService.VerifiedToken(revokedId, "user", expiration, List.of("USER"));
+    }
+
+    @Benchmark
+    public boolean emptyBucket() {
+        return revocationList.isRevoked(emptyBucket);
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return revocationList.isRevoked(notRevoked);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return revocationList.isRevoked(revoked);
+    }
+}
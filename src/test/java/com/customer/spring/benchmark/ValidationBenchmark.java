@@ -0,0 +1,135 @@
+package com.customer.spring.benchmark;
+
+import com.customer.spring.dto.CustomerDTO;
+import com.customer.spring.entity.Customer;
+import com.customer.spring.mapper.CustomerMapper;
+import com.customer.spring.repository.CustomerRepository;
+import com.customer.spring.repository.OutboxEventRepository;
+import com.customer.spring.service.CustomerCache;
+import com.customer.spring.service.CustomerSearchCache;
+import com.customer.spring.service.CustomerSearchIndex;
+import com.customer.spring.service.CustomerService;
+import com.customer.spring.service.KafkaProducerService;
+import com.customer.spring.service.OutboxService;
+import com.customer.spring.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Request validation on the write paths: the password rules checked by {@code /register},
+ * before and after the check stopped copying the password and allocating a String per
+ * character (run with {@code -prof gc} to see the allocation),
+ * and {@link CustomerService#createCustomer} with in-memory repository stubs and an inline
+ * transaction, so the time is validation, mapping and event encoding rather than I/O. The
+ * search cache invalidation at the end is one call on a stub-only Mockito mock.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private static final String PASSWORD = "Correct-Horse-Battery-9";
+    private static final String SPECIAL_CHARACTERS = "!@#$%^&*()-+";
+
+    private UserService userService;
+    private CustomerService customerService;
+    private CustomerDTO customerDTO;
+
+    @Setup
+    public void setUp() {
+        userService = new UserService(null, null, null, null, null, null, null, null);
+
+        AtomicLong ids = new AtomicLong();
+        CustomerRepository customerRepository = stub(CustomerRepository.class, (method, args) -> switch (method) {
+            case "save" -> {
+                Customer customer = (Customer) args[0];
+                customer.setId(ids.incrementAndGet());
+                yield customer;
+            }
+            case "flush" -> null;
+            default -> throw new UnsupportedOperationException(method);
+        });
+        OutboxEventRepository outboxEventRepository = stub(OutboxEventRepository.class, (method, args) -> {
+            if (!method.equals("save")) {
+                throw new UnsupportedOperationException(method);
+            }
+            return args[0];
+        });
+        TransactionTemplate inline = new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(null);
+            }
+        };
+        // stubOnly: a regular mock would record every call and grow the heap for the whole run.
+        KafkaProducerService kafkaProducerService = mock(KafkaProducerService.class, withSettings().stubOnly());
+        CustomerSearchCache customerSearchCache = new CustomerSearchCache(kafkaProducerService, true, 1_000, Duration.ofSeconds(30));
+        customerService = new CustomerService(customerRepository, CustomerMapper.INSTANCE,
+                new CustomerSearchIndex(customerRepository, CustomerMapper.INSTANCE, customerSearchCache, false, 1_000),
+                new CustomerCache(kafkaProducerService, CustomerMapper.INSTANCE, 1_000, Duration.ofMinutes(5)),
+                customerSearchCache,
+                new OutboxService(outboxEventRepository, new ObjectMapper()), inline);
+
+        customerDTO = new CustomerDTO();
+        customerDTO.setName("Benchmark Customer");
+        customerDTO.setIndustry("Tech");
+        customerDTO.setCompanySize(250);
+        customerDTO.setCustomerEmail("customer@example.com");
+        customerDTO.setCustomerPhoneNumber("555-0100");
+        customerDTO.setAddress("1 Main Street, Springfield");
+        customerDTO.setStatus("enabled");
+    }
+
+    @Benchmark
+    public boolean validatePassword() {
+        return userService.validatePassword(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean validatePasswordStringPerCharacter() {
+        boolean hasUppercase = false;
+        boolean hasLowercase = false;
+        boolean hasDigit = false;
+        boolean hasSpecialChar = false;
+        for (char c : PASSWORD.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                hasUppercase = true;
+            } else if (Character.isLowerCase(c)) {
+                hasLowercase = true;
+            } else if (Character.isDigit(c)) {
+                hasDigit = true;
+            } else if (SPECIAL_CHARACTERS.contains(String.valueOf(c))) {
+                hasSpecialChar = true;
+            }
+        }
+        return hasUppercase && hasLowercase && hasDigit && hasSpecialChar;
+    }
+
+    @Benchmark
+    public long createCustomer() {
+        return customerService.createCustomer(customerDTO);
+    }
+
+    @FunctionalInterface
+    private interface Stub {
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T stub(Class<T> type, Stub stub) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> stub.invoke(method.getName(), args)));
+    }
+}
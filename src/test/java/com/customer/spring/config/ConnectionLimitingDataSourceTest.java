@@ -0,0 +1,82 @@
+package com.customer.spring.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionLimitingDataSourceTest {
+
+    private DataSource target;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    @Test
+    void getConnection_ShouldHoldPermitUntilClose_AndReleaseItOnlyOnce() throws Exception {
+        // Arrange
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 0, Duration.ofMillis(50));
+
+        // Act
+        Connection connection = dataSource.getConnection();
+
+        // Assert
+        assertEquals(0, dataSource.availablePermits());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        connection.close();
+        connection.close();
+        verify(((ConnectionProxy) connection).getTargetConnection(), times(1)).close();
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void getConnection_ShouldWaitForReleasedPermit_WhileWaitersBelowLimit() throws Exception {
+        // Arrange
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 1, Duration.ofSeconds(5));
+        Connection first = dataSource.getConnection();
+
+        // Act
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (dataSource.waitingThreads() == 0) {
+            Thread.onSpinWait();
+        }
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        first.close();
+
+        // Assert
+        assertNotNull(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(0, dataSource.availablePermits());
+    }
+
+    @Test
+    void getConnection_ShouldReturnPermit_WhenPoolFails() throws Exception {
+        // Arrange
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool timeout"));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 0, Duration.ofMillis(50));
+
+        // Act
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        // Assert
+        assertEquals(1, dataSource.availablePermits());
+    }
+}
@@ -0,0 +1,176 @@
+package com.customer.spring.config;
+
+import com.customer.spring.config.InstrumentedTaskExecutor.SaturationPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedTaskExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InstrumentedTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void shed_ShouldRejectAndCountWhenPoolAndQueueAreFull() throws Exception {
+        // Arrange
+        executor = start(SaturationPolicy.SHED, Duration.ZERO);
+        saturate();
+
+        // Act & Assert
+        assertThrows(TaskRejectedException.class, () -> executor.execute(() -> { }));
+        Map<String, Object> stats = executor.stats();
+        assertEquals(1L, stats.get("shed_count"));
+        assertEquals(1, stats.get("active"));
+        assertEquals(1, stats.get("queue_depth"));
+    }
+
+    @Test
+    void callerRuns_ShouldRunOnTheSubmittingThreadWhenSaturated() throws Exception {
+        // Arrange
+        executor = start(SaturationPolicy.CALLER_RUNS, Duration.ZERO);
+        saturate();
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        // Act
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        // Assert
+        assertSame(Thread.currentThread(), ranOn.get());
+        assertEquals(1L, executor.stats().get("caller_runs_count"));
+    }
+
+    @Test
+    void block_ShouldWaitForAQueueSlotThenRejectAfterTheTimeout() throws Exception {
+        // Arrange
+        executor = new InstrumentedTaskExecutor(1, 1, 1, SaturationPolicy.BLOCK, Duration.ofSeconds(5), Duration.ZERO, meterRegistry);
+        executor.initialize();
+        saturate();
+        CountDownLatch ran = new CountDownLatch(1);
+
+        // Act: the slot frees up while the caller waits
+        Thread releaser = new Thread(() -> {
+            sleep(100);
+            release.countDown();
+        });
+        releaser.start();
+        executor.execute(ran::countDown);
+
+        // Assert
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals(0L, executor.stats().get("shed_count"));
+
+        InstrumentedTaskExecutor impatient = new InstrumentedTaskExecutor(1, 1, 1, SaturationPolicy.BLOCK,
+                Duration.ofMillis(50), Duration.ZERO, new SimpleMeterRegistry());
+        impatient.initialize();
+        CountDownLatch hold = new CountDownLatch(1);
+        try {
+            impatient.execute(() -> await(hold));
+            impatient.execute(() -> await(hold));
+            assertThrows(TaskRejectedException.class, () -> impatient.execute(() -> { }));
+            assertEquals(1L, impatient.stats().get("shed_count"));
+        } finally {
+            hold.countDown();
+            impatient.shutdown();
+        }
+    }
+
+    @Test
+    void taskTimeout_ShouldInterruptAnOverrunningTaskAndCountIt() throws Exception {
+        // Arrange
+        executor = start(SaturationPolicy.SHED, Duration.ofMillis(50));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CountDownLatch next = new CountDownLatch(1);
+        AtomicReference<Boolean> nextSawInterrupt = new AtomicReference<>();
+
+        // Act
+        executor.execute(() -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {
+            nextSawInterrupt.set(Thread.currentThread().isInterrupted());
+            next.countDown();
+        });
+
+        // Assert
+        assertTrue(next.await(5, TimeUnit.SECONDS));
+        assertFalse(nextSawInterrupt.get());
+        Map<String, Object> stats = executor.stats();
+        assertEquals(1L, stats.get("timed_out_count"));
+        assertTrue((double) stats.get("run_max_ms") >= 50.0);
+        assertTrue(meterRegistry.get("async.executor.run").timer().max(TimeUnit.MILLISECONDS) >= 50.0);
+        assertEquals(2L, meterRegistry.get("async.executor.queue.wait").timer().count());
+    }
+
+    @Test
+    void taskTimeout_ShouldNotInterruptTheCaller_WhenASaturatedPoolRunsTheTaskThere() throws Exception {
+        // Arrange
+        executor = start(SaturationPolicy.CALLER_RUNS, Duration.ofMillis(50));
+        saturate();
+        AtomicReference<Boolean> interrupted = new AtomicReference<>();
+
+        // Act: outlive the task timeout on the submitting thread
+        executor.execute(() -> {
+            sleep(200);
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+
+        // Assert
+        assertFalse(interrupted.get());
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals(1L, executor.stats().get("caller_runs_count"));
+    }
+
+    private InstrumentedTaskExecutor start(SaturationPolicy policy, Duration taskTimeout) {
+        InstrumentedTaskExecutor started = new InstrumentedTaskExecutor(1, 1, 1, policy, Duration.ZERO, taskTimeout, meterRegistry);
+        started.initialize();
+        return started;
+    }
+
+    // Occupies the single thread and the single queue slot until release is counted down.
+    private void saturate() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            await(release);
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> await(release));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
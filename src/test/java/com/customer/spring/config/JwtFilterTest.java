@@ -0,0 +1,162 @@
+package com.customer.spring.config;
+
+import com.customer.spring.entity.UserPrincipal;
+import com.customer.spring.entity.Users;
+import com.customer.spring.service.JWTService;
+import com.customer.spring.service.JwtKeyRing;
+import com.customer.spring.service.KafkaProducerService;
+import com.customer.spring.service.MyUserDetailsService;
+import com.customer.spring.service.TokenRevocationList;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JwtFilterTest {
+
+    private JwtKeyRing keyRing;
+    private JWTService jwtService;
+    private TokenRevocationList tokenRevocationList;
+    private MyUserDetailsService userDetailsService;
+    private ApplicationContext context;
+    private MockFilterChain filterChain;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        keyRing = new JwtKeyRing("", "", "", Duration.ZERO, Duration.ofHours(1));
+        jwtService = new JWTService(keyRing, 100, new SimpleMeterRegistry());
+        tokenRevocationList = new TokenRevocationList(mock(KafkaProducerService.class), Duration.ofMinutes(1), 1024);
+        userDetailsService = mock(MyUserDetailsService.class);
+        context = mock(ApplicationContext.class);
+        when(context.getBean(MyUserDetailsService.class)).thenReturn(userDetailsService);
+        filterChain = new MockFilterChain();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ShouldTakeAuthoritiesFromClaims_WhenStateless() throws Exception {
+        // Arrange
+        String token = jwtService.generateToken("alice", List.of("USER", "ADMIN"));
+
+        // Act
+        filter(true).doFilter(request(token), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("alice", ((UserPrincipal) authentication.getPrincipal()).getUsername());
+        assertEquals(Set.of("USER", "ADMIN"), authorities(authentication));
+        verifyNoInteractions(userDetailsService);
+        assertNotNull(filterChain.getRequest());
+    }
+
+    @Test
+    void doFilter_ShouldLoadThePrincipal_WhenNotStateless() throws Exception {
+        // Arrange
+        String token = jwtService.generateToken("alice", List.of("USER", "ADMIN"));
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(principal("alice"));
+
+        // Act
+        filter(false).doFilter(request(token), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(Set.of("USER"), authorities(authentication));
+        verify(userDetailsService, times(1)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void doFilter_ShouldFallBackToTheLookup_WhenTokenHasNoAuthoritiesClaim() throws Exception {
+        // Arrange: a token issued before the authorities claim existed
+        JwtKeyRing.KeyEntry signingKey = keyRing.signingKey();
+        String token = Jwts.builder()
+                .header().keyId(signingKey.id()).and()
+                .id(UUID.randomUUID().toString())
+                .subject("alice")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(signingKey.signingKey())
+                .compact();
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(principal("alice"));
+
+        // Act
+        filter(true).doFilter(request(token), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(Set.of("USER"), authorities(authentication));
+        verify(userDetailsService, times(1)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void doFilter_ShouldNotAuthenticate_WhenTokenIsRevoked() throws Exception {
+        // Arrange
+        String token = jwtService.generateToken("alice", List.of("USER"));
+        JWTService.VerifiedToken verified = jwtService.verify(token);
+        tokenRevocationList.revoke(verified.id(), verified.expiration());
+
+        // Act
+        filter(true).doFilter(request(token), new MockHttpServletResponse(), filterChain);
+
+        // Assert: the chain still runs, and the security rules answer 401/403
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userDetailsService);
+        assertNotNull(filterChain.getRequest());
+    }
+
+    @Test
+    void doFilter_ShouldPassThrough_WhenThereIsNoBearerToken() throws Exception {
+        // Act
+        filter(true).doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userDetailsService);
+        assertNotNull(filterChain.getRequest());
+    }
+
+    private JwtFilter filter(boolean statelessPrincipal) {
+        return new JwtFilter(jwtService, tokenRevocationList, context, statelessPrincipal, new SimpleMeterRegistry());
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static UserPrincipal principal(String username) {
+        Users user = new Users();
+        user.setUsername(username);
+        return new UserPrincipal(user, List.of(new SimpleGrantedAuthority("USER")));
+    }
+
+    private static Set<String> authorities(Authentication authentication) {
+        return Set.copyOf(authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+}
@@ -0,0 +1,117 @@
+package com.customer.spring.config;
+
+import com.customer.spring.entity.UserPrincipal;
+import com.customer.spring.entity.Users;
+import com.customer.spring.service.MyUserDetailsService;
+import com.customer.spring.service.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.AuthenticationConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SecurityConfigTest {
+
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private MyUserDetailsService userDetailsService;
+    private SecurityConfig securityConfig;
+
+    @BeforeEach
+    void setUp() {
+        passwordHashingExecutor = new PasswordHashingExecutor(2, 10, 1, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        userDetailsService = mock(MyUserDetailsService.class);
+        securityConfig = new SecurityConfig(userDetailsService, mock(JwtFilter.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    void passwordEncoder_ShouldMatchLegacyBcrypt_AndFlagItForUpgrade() {
+        // Arrange
+        PasswordEncoder encoder = encoder("argon2", 4);
+        String legacy = new BCryptPasswordEncoder(4).encode("Secret1!");
+
+        // Act
+        String current = encoder.encode("Secret1!");
+
+        // Assert
+        assertTrue(current.startsWith("{argon2}"));
+        assertTrue(encoder.matches("Secret1!", legacy));
+        assertTrue(encoder.matches("Secret1!", current));
+        assertTrue(encoder.upgradeEncoding(legacy));
+        assertFalse(encoder.upgradeEncoding(current));
+    }
+
+    @Test
+    void passwordEncoder_ShouldFlagBcryptHashes_WithLowerCostThanConfigured() {
+        // Arrange
+        String weak = encoder("bcrypt", 4).encode("Secret1!");
+
+        // Act & Assert
+        assertTrue(encoder("bcrypt", 5).upgradeEncoding(weak));
+        assertFalse(encoder("bcrypt", 4).upgradeEncoding(weak));
+    }
+
+    @Test
+    void authenticationProvider_ShouldRehashOutdatedPasswordOnLogin() {
+        // Arrange
+        PasswordEncoder encoder = encoder("bcrypt", 5);
+        Users user = new Users();
+        user.setUsername("john_doe");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("Secret1!"));
+        UserPrincipal principal = new UserPrincipal(user);
+        when(userDetailsService.loadUserByUsername("john_doe")).thenReturn(principal);
+        when(userDetailsService.updatePassword(any(), anyString())).thenAnswer(invocation -> {
+            Users updated = new Users();
+            updated.setUsername("john_doe");
+            updated.setPassword(invocation.getArgument(1));
+            return new UserPrincipal(updated);
+        });
+        AuthenticationProvider provider = securityConfig.authenticationProvider(encoder, userDetailsService);
+
+        // Act
+        provider.authenticate(new UsernamePasswordAuthenticationToken("john_doe", "Secret1!"));
+
+        // Assert
+        verify(userDetailsService).updatePassword(eq(principal), startsWith("{bcrypt}$2a$05$"));
+    }
+
+    @Test
+    void basicAuthenticationConverter_ShouldIgnoreCredentials_OnDisabledPaths() {
+        // Arrange
+        AuthenticationConverter converter = SecurityConfig.basicAuthenticationConverter(new String[]{"/login", " /internal/** "});
+        String header = "Basic " + Base64.getEncoder().encodeToString("john_doe:Secret1!".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertNull(converter.convert(basicRequest("/login", header)));
+        assertNull(converter.convert(basicRequest("/internal/jobs", header)));
+        assertEquals("john_doe", converter.convert(basicRequest("/api/v1/customers/1", header)).getName());
+    }
+
+    private static MockHttpServletRequest basicRequest(String path, String header) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.addHeader("Authorization", header);
+        return request;
+    }
+
+    private PasswordEncoder encoder(String id, int bcryptStrength) {
+        return securityConfig.passwordEncoder(passwordHashingExecutor, id, bcryptStrength, 16, 32, 1, 1024, 1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.customer.spring.config;
+
+import com.customer.spring.exception.GlobalExceptionHandler;
+import com.customer.spring.exception.ServiceOverloadedException;
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceOverloadedFilterTest {
+
+    private ServiceOverloadedFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        StaticWebApplicationContext context = new StaticWebApplicationContext();
+        context.registerSingleton("globalExceptionHandler", GlobalExceptionHandler.class);
+        context.refresh();
+        ExceptionHandlerExceptionResolver resolver = new ExceptionHandlerExceptionResolver();
+        resolver.setApplicationContext(context);
+        resolver.getMessageConverters().add(new MappingJackson2HttpMessageConverter());
+        resolver.afterPropertiesSet();
+        filter = new ServiceOverloadedFilter(resolver);
+    }
+
+    @Test
+    void doFilter_ShouldAnswer503WithRetryAfter_WhenBasicAuthenticationIsShedding() throws Exception {
+        // Arrange: the Basic filter's password check finds the hashing pool full
+        AuthenticationManager overloaded = authentication -> {
+            throw new ServiceOverloadedException("Too many concurrent authentication requests, please retry later", 2);
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers/1");
+        request.addHeader("Authorization", "Basic "
+                + Base64.getEncoder().encodeToString("alice:secret".getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+        }, filter, new BasicAuthenticationFilter(overloaded));
+
+        // Act
+        chain.doFilter(request, response);
+
+        // Assert
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("please retry later"));
+    }
+
+    @Test
+    void doFilter_ShouldLeaveOtherExceptionsAlone() {
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+        }, filter, (request, response, next) -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThrows(IllegalStateException.class,
+                () -> chain.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse()));
+    }
+}
@@ -50,6 +50,59 @@ class CustomerControllerTest {
     }
 
 
+    @Test
+    void createCustomers() {
+        List<CustomerDTO> customerDTOs = List.of(new CustomerDTO(), new CustomerDTO());
+        Map<String, Object> expectedResponse = Map.of("created", 2L, "failed", 0L, "results", List.of());
+
+        when(customerService.createCustomers(customerDTOs)).thenReturn(expectedResponse);
+
+        ResponseEntity<Map<String, Object>> response = customerController.createCustomers(customerDTOs);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody());
+        verify(customerService, times(1)).createCustomers(customerDTOs);
+    }
+
+    @Test
+    void createCustomers_ShouldReturnMultiStatus_WhenSomeRowsFailed() {
+        List<CustomerDTO> customerDTOs = List.of(new CustomerDTO(), new CustomerDTO());
+        Map<String, Object> expectedResponse = Map.of("created", 1L, "failed", 1L, "results", List.of());
+
+        when(customerService.createCustomers(customerDTOs)).thenReturn(expectedResponse);
+
+        ResponseEntity<Map<String, Object>> response = customerController.createCustomers(customerDTOs);
+
+        assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody());
+    }
+
+    @Test
+    void createCustomers_ShouldReturnBadRequest_WhenNoRowWasCreated() {
+        List<CustomerDTO> customerDTOs = List.of(new CustomerDTO(), new CustomerDTO());
+        Map<String, Object> expectedResponse = Map.of("created", 0L, "failed", 2L, "results", List.of());
+
+        when(customerService.createCustomers(customerDTOs)).thenReturn(expectedResponse);
+
+        ResponseEntity<Map<String, Object>> response = customerController.createCustomers(customerDTOs);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody());
+    }
+
+    @Test
+    void getCustomer() {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setId(1L);
+
+        when(customerService.getCustomer(1L)).thenReturn(customerDTO);
+
+        ResponseEntity<CustomerDTO> response = customerController.getCustomer(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(customerDTO, response.getBody());
+    }
+
     @Test
     void updateCustomer() {
         // Arrange
@@ -146,7 +199,7 @@ class CustomerControllerTest {
         when(customerService.searchCustomers(criteria, 0, 10)).thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<Map<String, Object>> response = customerController.searchCustomers(criteria, 0, 10);
+        ResponseEntity<Map<String, Object>> response = customerController.searchCustomers(criteria, 0, 10, null, true);
 
         // Assert
         assertNotNull(response);
@@ -156,4 +209,38 @@ class CustomerControllerTest {
         // Verify that the service method was called
         verify(customerService, times(1)).searchCustomers(criteria, 0, 10);
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchCustomers_ShouldUseKeysetPaging_WhenCursorIsGiven() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        Map<String, Object> expectedResponse = Map.of(
+                "has_next", false,
+                "results", List.of(new CustomerDTO())
+        );
+
+        when(customerService.searchCustomersAfter(criteria, "", 10)).thenReturn(expectedResponse);
+
+        ResponseEntity<Map<String, Object>> response = customerController.searchCustomers(criteria, 0, 10, "", true);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody());
+        verify(customerService, never()).searchCustomers(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchCustomers_ShouldSkipCount_WhenTotalIsNotRequested() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        Map<String, Object> expectedResponse = Map.of(
+                "has_next", true,
+                "current_page", 0,
+                "results", List.of(new CustomerDTO())
+        );
+
+        when(customerService.searchCustomerSlice(criteria, 0, 10)).thenReturn(expectedResponse);
+
+        ResponseEntity<Map<String, Object>> response = customerController.searchCustomers(criteria, 0, 10, null, false);
+
+        assertEquals(expectedResponse, response.getBody());
+        verify(customerService, never()).searchCustomers(any(), anyInt(), anyInt());
+    }
+}
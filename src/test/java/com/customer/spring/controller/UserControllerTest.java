@@ -1,6 +1,8 @@
 package com.customer.spring.controller;
 
 import com.customer.spring.entity.Users;
+import com.customer.spring.service.PasswordHashingExecutor;
+import com.customer.spring.service.RefreshTokenService;
 import com.customer.spring.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,6 +11,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
 
+import java.security.Principal;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,6 +26,12 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -53,6 +62,7 @@ class UserControllerTest {
         user.setUsername("john_doe");
 
         when(userService.verify(any(Users.class))).thenReturn("mockToken");
+        when(refreshTokenService.issue("john_doe")).thenReturn("mockRefreshToken");
 
         ResponseEntity<Map<String, Object>> response = userController.login(user);
 
@@ -61,7 +71,50 @@ class UserControllerTest {
         assertEquals("Login successful", response.getBody().get("message"));
         assertEquals("mockToken", response.getBody().get("token"));
         assertEquals("john_doe", response.getBody().get("user"));
+        assertEquals("mockRefreshToken", response.getBody().get("refresh_token"));
 
         verify(userService, times(1)).verify(any(Users.class));
     }
+
+    @Test
+    void testRefresh() {
+        when(refreshTokenService.refresh("oldRefreshToken"))
+                .thenReturn(new RefreshTokenService.TokenPair("newToken", "newRefreshToken"));
+
+        ResponseEntity<Map<String, Object>> response = userController.refresh(Map.of("refresh_token", "oldRefreshToken"));
+
+        assertEquals("Token refreshed", response.getBody().get("message"));
+        assertEquals("newToken", response.getBody().get("token"));
+        assertEquals("newRefreshToken", response.getBody().get("refresh_token"));
+        verify(userService, never()).verify(any(Users.class));
+    }
+
+    @Test
+    void testPasswordHashingStats() {
+        when(passwordHashingExecutor.stats()).thenReturn(Map.of("queue_depth", 3));
+
+        ResponseEntity<Map<String, Object>> response = userController.passwordHashingStats();
+
+        assertEquals(3, response.getBody().get("queue_depth"));
+    }
+
+    @Test
+    void testLogout() {
+        Principal principal = () -> "john_doe";
+
+        ResponseEntity<Map<String, Object>> response = userController.logout("Bearer access.token.value",
+                Map.of("refresh_token", "refreshToken"), principal);
+
+        assertEquals("Logout successful", response.getBody().get("message"));
+        verify(userService, times(1)).logout("john_doe", "access.token.value", "refreshToken");
+    }
+
+    @Test
+    void testRevoke() {
+        when(userService.revoke("john_doe", "refreshToken")).thenReturn(true);
+
+        ResponseEntity<Map<String, Object>> response = userController.revoke(Map.of("token", "refreshToken"), () -> "john_doe");
+
+        assertEquals(true, response.getBody().get("revoked"));
+    }
 }
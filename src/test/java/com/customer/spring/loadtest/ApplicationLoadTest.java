@@ -0,0 +1,397 @@
+package com.customer.spring.loadtest;
+
+import ch.qos.logback.classic.Level;
+import com.customer.spring.Application;
+import com.customer.spring.service.KafkaProducerService;
+import com.customer.spring.service.OutboxRelay;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Boots the whole application against an in-memory H2 database in PostgreSQL mode and an
+ * embedded single-node Kafka broker, seeds users and customers through the API, then drives a
+ * weighted mix of operations over HTTP from {@code clients} closed-loop client threads. Nothing
+ * leaves the machine.
+ * <p>
+ * For every operation it reports throughput, latency percentiles and the number of SQL
+ * statements Hibernate prepared per request, counted on the request thread and attributed by an
+ * {@code X-Load-Op} header. Statements prepared outside a request, such as by the outbox relay,
+ * are reported as background. Searches run at three selectivities: one customer by name, about
+ * 2% of the table by company size and about 20% by industry, the last also at a deep page.
+ * <p>
+ * Options are {@code key=value}; keys containing a dot are passed to the application, e.g.
+ * {@code password-encoder.bcrypt.strength=10} or {@code customer.search.cache.enabled=false}.
+ * <p>
+ * {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.customer.spring.loadtest.ApplicationLoadTest
+ * -Dloadtest.args="clients=32 seconds=60"}
+ */
+public final class ApplicationLoadTest {
+
+    private static final String OP_HEADER = "X-Load-Op";
+    private static final String[] INDUSTRIES = {"Tech", "Finance", "Retail", "Health", "Energy"};
+    private static final int COMPANY_SIZES = 50;
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private static final ThreadLocal<int[]> REQUEST_STATEMENTS = new ThreadLocal<>();
+    private static final LongAdder BACKGROUND_STATEMENTS = new LongAdder();
+    private static final Map<String, LongAdder> STATEMENTS_BY_OP = new ConcurrentHashMap<>();
+
+    private final Map<String, String> options;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong sequence = new AtomicLong();
+    private String baseUrl;
+    private List<String> tokens;
+    private int seededCustomers;
+    private long firstCustomerId;
+    private volatile boolean measuring;
+
+    private ApplicationLoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(Map.of(
+                "clients", "16", "seconds", "30", "warmup-seconds", "5",
+                "users", "20", "customers", "5000", "limit", "10",
+                "mix", "login:5,register:2,create:10,update:10,status:10,"
+                        + "search-narrow:20,search-medium:15,search-broad:15,search-deep:13"));
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair[1]);
+        }
+        System.out.println("options " + options);
+        new ApplicationLoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 1);
+        broker.afterPropertiesSet();
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--outbox.relay.exclusive=false",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.sql.init.mode=never",
+                "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                "--logging.level.root=WARN"));
+        options.forEach((key, value) -> {
+            if (key.contains(".")) {
+                appArgs.add("--" + key + "=" + value);
+            }
+        });
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .initializers((ApplicationContextInitializer<GenericApplicationContext>) ApplicationLoadTest::registerStatementCounting)
+                .run(appArgs.toArray(String[]::new))) {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            seed();
+
+            Map<String, Integer> mix = mix(options.get("mix"));
+            int clients = Integer.parseInt(options.get("clients"));
+            List<Client> running = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                Client client = new Client(mix);
+                running.add(client);
+                client.start();
+            }
+            Thread.sleep(Duration.ofSeconds(Long.parseLong(options.get("warmup-seconds"))).toMillis());
+            STATEMENTS_BY_OP.clear();
+            BACKGROUND_STATEMENTS.reset();
+            measuring = true;
+            long measuredFrom = System.nanoTime();
+            Thread.sleep(Duration.ofSeconds(Long.parseLong(options.get("seconds"))).toMillis());
+            measuring = false;
+            double elapsedSeconds = (System.nanoTime() - measuredFrom) / 1e9;
+            for (Client client : running) {
+                client.stopped = true;
+            }
+            for (Client client : running) {
+                client.join();
+            }
+
+            report(running, mix.keySet(), elapsedSeconds);
+            System.out.println("background statements " + BACKGROUND_STATEMENTS.sum());
+            System.out.println("outbox " + context.getBean(OutboxRelay.class).stats());
+            System.out.println("kafka producer " + context.getBean(KafkaProducerService.class).stats());
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    // Counts the statements Hibernate prepares on each request thread and files them under the request's operation.
+    private static void registerStatementCounting(GenericApplicationContext context) {
+        StatementInspector inspector = sql -> {
+            int[] count = REQUEST_STATEMENTS.get();
+            if (count != null) {
+                count[0]++;
+            } else {
+                BACKGROUND_STATEMENTS.increment();
+            }
+            return sql;
+        };
+        context.registerBean(HibernatePropertiesCustomizer.class,
+                () -> properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector));
+
+        Filter filter = (request, response, chain) -> {
+            String op = ((HttpServletRequest) request).getHeader(OP_HEADER);
+            int[] count = new int[1];
+            REQUEST_STATEMENTS.set(count);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                REQUEST_STATEMENTS.remove();
+                if (op != null) {
+                    STATEMENTS_BY_OP.computeIfAbsent(op, o -> new LongAdder()).add(count[0]);
+                }
+            }
+        };
+        context.registerBean("loadTestStatementFilter", FilterRegistrationBean.class, () -> {
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(filter);
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        });
+    }
+
+    private void seed() throws Exception {
+        int users = Integer.parseInt(options.get("users"));
+        tokens = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String credentials = credentials("load_user_" + i);
+            expect(send("seed", post("/register", credentials, null)), 201);
+            tokens.add(token(send("seed", post("/login", credentials, null))));
+        }
+
+        seededCustomers = Integer.parseInt(options.get("customers"));
+        for (int from = 0; from < seededCustomers; from += 1_000) {
+            StringBuilder batch = new StringBuilder("[");
+            for (int i = from; i < Math.min(from + 1_000, seededCustomers); i++) {
+                batch.append(i == from ? "" : ",").append(customerJson(i));
+            }
+            HttpResponse<String> response = send("seed", post("/api/v1/customers/batch", batch.append(']').toString(), tokens.get(0)));
+            expect(response, 200, 201);
+            if (from == 0) {
+                Matcher matcher = ID.matcher(response.body());
+                firstCustomerId = matcher.find() ? Long.parseLong(matcher.group(1)) : 1;
+            }
+        }
+        System.out.printf("seeded %d users and %d customers%n", users, seededCustomers);
+    }
+
+    private HttpResponse<String> execute(String op) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String token = tokens.get(random.nextInt(tokens.size()));
+        long customerId = firstCustomerId + random.nextInt(seededCustomers);
+        int limit = Integer.parseInt(options.get("limit"));
+        return switch (op) {
+            case "register" -> send(op, post("/register", credentials("load_new_" + sequence.incrementAndGet()), null));
+            case "login" -> send(op, post("/login", credentials("load_user_" + random.nextInt(tokens.size())), null));
+            case "create" -> send(op, post("/api/v1/customers", customerJson(seededCustomers + sequence.incrementAndGet()), token));
+            // Keeps the name, so the narrow search still finds the customer.
+            case "update" -> send(op, request("/api/v1/customers/" + customerId, token)
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"name\":\"Customer cust-"
+                            + String.format("%06d", customerId - firstCustomerId) + "\",\"address\":\""
+                            + sequence.incrementAndGet() + " Side Street\"}")));
+            case "status" -> send(op, request("/api/v1/customers/" + customerId + "?status="
+                    + (random.nextBoolean() ? "enabled" : "disabled"), token)
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+            case "search-narrow" -> send(op, request("/api/v1/customers/search?name=cust-"
+                    + String.format("%06d", random.nextInt(seededCustomers)) + "&limit=" + limit, token).GET());
+            case "search-medium" -> send(op, request("/api/v1/customers/search?companySize="
+                    + (1 + random.nextInt(COMPANY_SIZES)) + "&limit=" + limit, token).GET());
+            case "search-broad" -> send(op, request("/api/v1/customers/search?industry="
+                    + INDUSTRIES[random.nextInt(INDUSTRIES.length)] + "&limit=" + limit, token).GET());
+            case "search-deep" -> send(op, request("/api/v1/customers/search?industry="
+                    + INDUSTRIES[random.nextInt(INDUSTRIES.length)] + "&limit=" + limit
+                    + "&page=" + (seededCustomers / INDUSTRIES.length / limit - 1), token).GET());
+            default -> throw new IllegalArgumentException("Unknown operation " + op);
+        };
+    }
+
+    private void report(List<Client> clients, Iterable<String> ops, double elapsedSeconds) {
+        System.out.printf("%-14s %9s %8s %12s %9s %9s %9s %9s %11s%n",
+                "operation", "requests", "errors", "throughput/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "queries/op");
+        long total = 0;
+        for (String op : ops) {
+            long[] latencies = clients.stream()
+                    .flatMapToLong(client -> Arrays.stream(client.latencies(op)))
+                    .sorted()
+                    .toArray();
+            long errors = clients.stream().mapToLong(client -> client.errors.getOrDefault(op, 0L)).sum();
+            int n = latencies.length;
+            total += n;
+            LongAdder statements = STATEMENTS_BY_OP.get(op);
+            System.out.printf("%-14s %9d %8d %12.1f %9.1f %9.1f %9.1f %9.1f %11.2f%n", op, n, errors, n / elapsedSeconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                    percentile(latencies, 1.0), n == 0 || statements == null ? 0.0 : (double) statements.sum() / n);
+        }
+        System.out.printf("%-14s %9d %8s %12.1f%n", "total", total, "", total / elapsedSeconds);
+        Map<String, Long> statuses = new TreeMap<>();
+        clients.forEach(client -> client.errorStatuses.forEach((key, count) -> statuses.merge(key, count, Long::sum)));
+        if (!statuses.isEmpty()) {
+            System.out.println("errors by operation and status " + statuses);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest.Builder post(String path, String body, String token) {
+        return request(path, token).POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpResponse<String> send(String op, HttpRequest.Builder request) throws Exception {
+        return http.send(request.header(OP_HEADER, op).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String credentials(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"Load-Test-Pass1\"}";
+    }
+
+    // Names carry a unique "cust-NNNNNN" token for the narrow search; sizes and industries cycle.
+    private static String customerJson(long i) {
+        return "{\"name\":\"Customer cust-" + String.format("%06d", i) + "\","
+                + "\"industry\":\"" + INDUSTRIES[(int) (i % INDUSTRIES.length)] + "\","
+                + "\"companySize\":" + (1 + i % COMPANY_SIZES) + ","
+                + "\"customerEmail\":\"customer" + i + "@example.com\","
+                + "\"customerPhoneNumber\":\"555-" + i + "\","
+                + "\"address\":\"" + i + " Main Street\","
+                + "\"status\":\"enabled\"}";
+    }
+
+    private static String token(HttpResponse<String> response) {
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("No token in login response: " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static void expect(HttpResponse<String> response, int... statuses) {
+        if (Arrays.stream(statuses).noneMatch(status -> status == response.statusCode())) {
+            throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private static Map<String, Integer> mix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.split(":", 2);
+            mix.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    private final class Client extends Thread {
+        private final String[] weightedOps;
+        private final Map<String, long[]> latencies = new LinkedHashMap<>();
+        private final Map<String, Integer> counts = new LinkedHashMap<>();
+        private final Map<String, Long> errors = new ConcurrentHashMap<>();
+        private final Map<String, Long> errorStatuses = new ConcurrentHashMap<>();
+        private volatile boolean stopped;
+
+        private Client(Map<String, Integer> mix) {
+            super("load-client");
+            setDaemon(true);
+            List<String> ops = new ArrayList<>();
+            mix.forEach((op, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    ops.add(op);
+                }
+            });
+            weightedOps = ops.toArray(String[]::new);
+        }
+
+        @Override
+        public void run() {
+            while (!stopped) {
+                String op = weightedOps[ThreadLocalRandom.current().nextInt(weightedOps.length)];
+                long startedAt = System.nanoTime();
+                int status;
+                try {
+                    status = execute(op).statusCode();
+                } catch (Exception e) {
+                    status = -1;
+                }
+                long elapsed = System.nanoTime() - startedAt;
+                if (measuring) {
+                    record(op, elapsed);
+                    if (status < 200 || status >= 300) {
+                        errors.merge(op, 1L, Long::sum);
+                        errorStatuses.merge(op + ":" + status, 1L, Long::sum);
+                    }
+                }
+            }
+        }
+
+        private void record(String op, long elapsed) {
+            int count = counts.getOrDefault(op, 0);
+            long[] values = latencies.computeIfAbsent(op, o -> new long[1024]);
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+                latencies.put(op, values);
+            }
+            values[count] = elapsed;
+            counts.put(op, count + 1);
+        }
+
+        private long[] latencies(String op) {
+            long[] values = latencies.get(op);
+            return values == null ? new long[0] : Arrays.copyOf(values, counts.get(op));
+        }
+    }
+}
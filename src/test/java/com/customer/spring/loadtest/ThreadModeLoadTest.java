@@ -0,0 +1,131 @@
+package com.customer.spring.loadtest;
+
+import com.customer.spring.config.ConnectionLimitingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares request handling on a Tomcat-sized platform thread pool, on virtual threads going
+ * straight to Hikari, and on virtual threads behind {@link ConnectionLimitingDataSource}.
+ * <p>
+ * Each simulated request blocks on non-database I/O for {@code io-ms}, then holds a pooled H2
+ * connection for one query plus {@code query-ms} of simulated database time. Requests arrive
+ * at a fixed {@code rate} for {@code seconds}, whether or not earlier ones have finished, and
+ * latency is measured from the scheduled arrival, so queueing in front of a saturated pool shows
+ * up in p99 instead of slowing the load generator. Virtual-thread modes need a Java 21 runtime
+ * and are skipped otherwise.
+ * <p>
+ * {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.args="rate=3000 seconds=10"}
+ */
+public final class ThreadModeLoadTest {
+
+    private static final String[] MODES = {"platform", "virtual", "virtual-limited"};
+
+    private ThreadModeLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "rate", "3000", "seconds", "10", "io-ms", "100", "query-ms", "2",
+                "pool-size", "10", "platform-threads", "200", "connection-timeout-ms", "2000",
+                "max-waiting", "1000"));
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair[1]);
+        }
+        System.out.println("options " + options);
+        System.out.printf("%-16s %12s %10s %10s %10s %8s%n", "mode", "throughput/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (String mode : options.getOrDefault("modes", String.join(",", MODES)).split(",")) {
+            run(mode, options);
+        }
+    }
+
+    private static void run(String mode, Map<String, String> options) throws Exception {
+        int rate = Integer.parseInt(options.get("rate"));
+        int seconds = Integer.parseInt(options.get("seconds"));
+        long ioMillis = Long.parseLong(options.get("io-ms"));
+        long queryMillis = Long.parseLong(options.get("query-ms"));
+        int poolSize = Integer.parseInt(options.get("pool-size"));
+        long connectionTimeoutMillis = Long.parseLong(options.get("connection-timeout-ms"));
+
+        Executor executor;
+        try {
+            executor = mode.startsWith("virtual")
+                    ? new VirtualThreadTaskExecutor("load-")
+                    : Executors.newFixedThreadPool(Integer.parseInt(options.get("platform-threads")));
+        } catch (UnsupportedOperationException e) {
+            System.out.printf("%-16s skipped: %s%n", mode, e.getMessage());
+            return;
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(poolSize);
+        config.setConnectionTimeout(connectionTimeoutMillis);
+        try (HikariDataSource pool = new HikariDataSource(config)) {
+            DataSource dataSource = mode.endsWith("limited")
+                    ? new ConnectionLimitingDataSource(pool, poolSize, Integer.parseInt(options.get("max-waiting")),
+                            Duration.ofMillis(connectionTimeoutMillis))
+                    : pool;
+
+            int requests = rate * seconds;
+            long[] latencies = new long[requests];
+            AtomicInteger errors = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(requests);
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                long scheduledAt = start + i * intervalNanos;
+                LockSupport.parkNanos(scheduledAt - System.nanoTime());
+                int index = i;
+                executor.execute(() -> {
+                    try {
+                        Thread.sleep(ioMillis);
+                        try (Connection connection = dataSource.getConnection();
+                             Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                            Thread.sleep(queryMillis);
+                        }
+                    } catch (SQLException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        latencies[index] = System.nanoTime() - scheduledAt;
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+            long elapsed = System.nanoTime() - start;
+            if (executor instanceof ExecutorService threadPool) {
+                threadPool.shutdown();
+            }
+
+            Arrays.sort(latencies);
+            System.out.printf("%-16s %12.0f %10.1f %10.1f %10.1f %8d%n", mode,
+                    (requests - errors.get()) * 1e9 / elapsed,
+                    latencies[requests / 2] / 1e6,
+                    latencies[(int) (requests * 0.99)] / 1e6,
+                    latencies[requests - 1] / 1e6,
+                    errors.get());
+        }
+    }
+}
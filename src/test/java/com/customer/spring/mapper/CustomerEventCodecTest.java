@@ -0,0 +1,74 @@
+package com.customer.spring.mapper;
+
+import com.customer.spring.entity.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerEventCodecTest {
+
+    @Test
+    void decode_ShouldRoundTripEncodedCustomer_IncludingNullsAndNonAscii() {
+        // Arrange
+        Customer customer = new Customer();
+        customer.setId(300L);
+        customer.setName("Zoë Café");
+        customer.setIndustry("Tech");
+        customer.setCompanySize(250);
+        customer.setCustomerEmail("zoe@example.com");
+        customer.setCustomerPhoneNumber("555-0100");
+        customer.setStatus("enabled");
+        customer.setVersion(7L);
+        Instant occurredAt = Instant.ofEpochMilli(1_700_000_000_123L);
+
+        // Act
+        CustomerEventCodec.CustomerEvent event = CustomerEventCodec.decode(
+                CustomerEventCodec.encode(CustomerEventCodec.Type.UPDATED, occurredAt, customer));
+
+        // Assert
+        assertEquals(CustomerEventCodec.SCHEMA_VERSION, event.schemaVersion());
+        assertEquals(CustomerEventCodec.Type.UPDATED, event.type());
+        assertEquals(occurredAt, event.occurredAt());
+        assertEquals(7L, event.version());
+        assertEquals(300L, event.customer().getId());
+        assertEquals("Zoë Café", event.customer().getName());
+        assertEquals(250, event.customer().getCompanySize());
+        assertNull(event.customer().getAddress());
+        assertNull(event.customer().getOtherCustomerData());
+    }
+
+    @Test
+    void encode_ShouldBeSmallerThanJson_AndIgnoreFieldsAppendedByLaterVersions() {
+        // Arrange
+        Customer customer = new Customer();
+        customer.setId(12345L);
+        customer.setName("Benchmark Customer");
+        customer.setIndustry("Tech");
+        customer.setCompanySize(250);
+        customer.setCustomerEmail("customer@example.com");
+        customer.setCustomerPhoneNumber("555-0100");
+        customer.setAddress("1 Main Street, Springfield");
+        customer.setStatus("enabled");
+        String json = "{\"id\":12345,\"name\":\"Benchmark Customer\",\"industry\":\"Tech\",\"companySize\":250,"
+                + "\"customerEmail\":\"customer@example.com\",\"customerPhoneNumber\":\"555-0100\","
+                + "\"address\":\"1 Main Street, Springfield\",\"status\":\"enabled\",\"otherCustomerData\":null}";
+
+        // Act
+        byte[] encoded = CustomerEventCodec.encode(CustomerEventCodec.Type.CREATED, Instant.now(), customer);
+        byte[] newerVersion = Arrays.copyOf(encoded, encoded.length + 3);
+        newerVersion[0] = CustomerEventCodec.SCHEMA_VERSION + 1;
+        // Version 1 had no trailing row version; this one's is 0, a single byte.
+        byte[] version1 = Arrays.copyOf(encoded, encoded.length - 1);
+        version1[0] = 1;
+
+        // Assert
+        assertTrue(encoded.length < json.getBytes(StandardCharsets.UTF_8).length / 2);
+        assertEquals("Benchmark Customer", CustomerEventCodec.decode(newerVersion).customer().getName());
+        assertEquals("Benchmark Customer", CustomerEventCodec.decode(version1).customer().getName());
+        assertEquals(0L, CustomerEventCodec.decode(version1).version());
+    }
+}
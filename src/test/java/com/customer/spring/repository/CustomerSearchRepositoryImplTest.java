@@ -0,0 +1,175 @@
+package com.customer.spring.repository;
+
+import com.customer.spring.entity.Customer;
+import com.customer.spring.entity.CustomerSearchCriteria;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.customer.spring.repository.CustomerSearchRepositoryImplTest$RecordingStatementInspector"
+})
+class CustomerSearchRepositoryImplTest {
+
+    @TestConfiguration
+    static class MeterRegistryConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+    }
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private Customer johnDoe;
+    private Customer johnnyBravo;
+    private Customer janeSmith;
+
+    @BeforeEach
+    void setUp() {
+        johnDoe = customerRepository.save(customer("JOHN Doe", "John.Doe@Example.com", "Tech", 50, "enabled", null));
+        johnnyBravo = customerRepository.save(customer("Johnny Bravo", "bravo@example.com", "Tech", 10, "disabled", "1 Main St"));
+        janeSmith = customerRepository.save(customer("Jane Smith", "jane@example.com", "Retail", 50, "enabled", "2 High St"));
+        customerRepository.save(customer("Little John", "little@example.com", "Tech", 50, "enabled", "3 Oak Ave"));
+        customerRepository.save(customer("Johanna Lee", "lee@example.com", "Retail", 10, "enabled", "4 Elm Rd"));
+        customerRepository.flush();
+        RecordingStatementInspector.statements.clear();
+    }
+
+    @Test
+    void searchCustomers_ShouldApplyOnlyTheSuppliedCriteria() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        criteria.setIndustry("Tech");
+        criteria.setCompanySize(50);
+
+        Page<Customer> page = customerRepository.searchCustomers(criteria, PageRequest.of(0, 10));
+
+        // johnDoe has no address; a catch-all "address LIKE '%%'" term would have dropped it.
+        assertEquals(2, page.getTotalElements());
+        assertTrue(page.getContent().contains(johnDoe));
+        String select = RecordingStatementInspector.statements.get(0);
+        assertTrue(select.contains("industry"));
+        assertTrue(select.contains("company_size"));
+        assertFalse(select.contains("like"));
+        assertFalse(select.contains("is null"));
+        assertFalse(select.substring(select.indexOf(" where ")).contains("address"));
+        assertFalse(select.substring(select.indexOf(" where ")).contains("status"));
+    }
+
+    @Test
+    void searchCustomers_ShouldMatchSubstringsCaseInsensitively() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        criteria.setName("john");
+        criteria.setCustomerEmail("EXAMPLE.COM");
+
+        Page<Customer> page = customerRepository.searchCustomers(criteria, PageRequest.of(0, 10));
+
+        assertEquals(3, page.getTotalElements());
+        assertFalse(page.getContent().contains(janeSmith));
+
+        criteria.setName("DOE");
+        criteria.setCustomerEmail("john.doe@");
+        assertEquals(List.of(johnDoe), customerRepository.searchCustomers(criteria, PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    void searchCustomers_ShouldReportTheSameTotalAsCount() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        criteria.setName("jo");
+
+        Page<Customer> middle = customerRepository.searchCustomers(criteria, PageRequest.of(1, 1));
+        long count = customerRepository.countCustomers(criteria);
+
+        assertEquals(4, count);
+        assertEquals(count, middle.getTotalElements());
+        assertEquals(4, middle.getTotalPages());
+        assertEquals(1, middle.getContent().size());
+        assertTrue(RecordingStatementInspector.statements.stream().anyMatch(sql -> sql.contains("count(")));
+    }
+
+    @Test
+    void searchCustomers_ShouldSkipTheCount_WhenTheFirstPageHoldsEveryMatch() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        criteria.setStatus("disabled");
+
+        Page<Customer> page = customerRepository.searchCustomers(criteria, PageRequest.of(0, 10));
+
+        assertEquals(List.of(johnnyBravo), page.getContent());
+        assertEquals(1, page.getTotalElements());
+        assertEquals(1, RecordingStatementInspector.statements.size());
+    }
+
+    @Test
+    void searchCustomerSlice_ShouldReadOneExtraRowToDecideHasNext() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        criteria.setIndustry("Tech");
+
+        Slice<Customer> partial = customerRepository.searchCustomerSlice(criteria, PageRequest.of(0, 2));
+        Slice<Customer> exact = customerRepository.searchCustomerSlice(criteria, PageRequest.of(0, 3));
+        Slice<Customer> last = customerRepository.searchCustomerSlice(criteria, PageRequest.of(1, 2));
+
+        assertTrue(partial.hasNext());
+        assertEquals(2, partial.getContent().size());
+        assertFalse(exact.hasNext());
+        assertEquals(3, exact.getContent().size());
+        assertFalse(last.hasNext());
+        assertEquals(1, last.getContent().size());
+        assertTrue(RecordingStatementInspector.statements.stream().noneMatch(sql -> sql.contains("count(")));
+    }
+
+    @Test
+    void searchCustomersAfter_ShouldReturnRowsPastTheCursorInIdOrder() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        criteria.setCompanySize(50);
+
+        List<Customer> first = customerRepository.searchCustomersAfter(criteria, 0L, PageRequest.of(0, 2));
+        List<Customer> next = customerRepository.searchCustomersAfter(criteria, first.get(1).getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(johnDoe, janeSmith), first);
+        assertEquals(1, next.size());
+        assertEquals("Little John", next.get(0).getName());
+    }
+
+    private static Customer customer(String name, String email, String industry, int companySize,
+                                     String status, String address) {
+        Customer customer = new Customer();
+        customer.setName(name);
+        customer.setCustomerEmail(email);
+        customer.setCustomerPhoneNumber(email.substring(0, email.indexOf('@')));
+        customer.setIndustry(industry);
+        customer.setCompanySize(companySize);
+        customer.setStatus(status);
+        customer.setAddress(address);
+        return customer;
+    }
+}
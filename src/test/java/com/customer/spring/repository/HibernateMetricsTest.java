@@ -0,0 +1,50 @@
+package com.customer.spring.repository;
+
+import com.customer.spring.entity.Customer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.orm.jpa.HibernateMetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ImportAutoConfiguration({MetricsAutoConfiguration.class, SimpleMetricsExportAutoConfiguration.class,
+        HibernateMetricsAutoConfiguration.class})
+class HibernateMetricsTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void statistics_ShouldFeedHibernateMeters_WithoutLoggingSessionMetrics() {
+        // Arrange
+        Customer customer = new Customer();
+        customer.setName("Metrics Check");
+        customer.setCustomerEmail("metrics.check@example.com");
+        customer.setCustomerPhoneNumber("555-0100");
+
+        // Act
+        customerRepository.saveAndFlush(customer);
+
+        // Assert
+        assertEquals("false", entityManagerFactory.getProperties().get("hibernate.session.events.log"));
+        assertNotNull(meterRegistry.find("hibernate.sessions.open").functionCounter());
+        assertTrue(meterRegistry.get("hibernate.entities.inserts").functionCounter().count() >= 1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.customer.spring.service;
+
+import com.customer.spring.entity.UserPrincipal;
+import com.customer.spring.entity.Users;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BasicCredentialCacheTest {
+
+    private KafkaProducerService kafkaProducerService;
+    private AuthenticationProvider delegate;
+    private AuthenticationProvider provider;
+    private BasicCredentialCache cache;
+
+    @BeforeEach
+    void setUp() {
+        kafkaProducerService = mock(KafkaProducerService.class);
+        delegate = mock(AuthenticationProvider.class);
+        cache = new BasicCredentialCache(kafkaProducerService, 100, Duration.ofMinutes(1));
+        provider = cache.caching(delegate);
+
+        Users user = new Users();
+        user.setUsername("batch_client");
+        UserPrincipal principal = new UserPrincipal(user);
+        when(delegate.authenticate(argThat(auth -> auth != null && "Secret1!".equals(auth.getCredentials()))))
+                .thenReturn(UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+        when(delegate.authenticate(argThat(auth -> auth != null && "wrong".equals(auth.getCredentials()))))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+    }
+
+    @Test
+    void authenticate_ShouldVerifyPasswordOnce_ForRepeatedCredentials() {
+        // Act
+        Authentication first = provider.authenticate(request("Secret1!"));
+        Authentication second = provider.authenticate(request("Secret1!"));
+
+        // Assert
+        assertTrue(second.isAuthenticated());
+        assertEquals(first.getName(), second.getName());
+        assertNull(second.getCredentials());
+        verify(delegate, times(1)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_ShouldNotCacheFailures_OrMatchADifferentPassword() {
+        // Act
+        provider.authenticate(request("Secret1!"));
+
+        // Assert
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(request("wrong")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(request("wrong")));
+        verify(delegate, times(3)).authenticate(any());
+    }
+
+    @Test
+    void invalidate_ShouldDropUserEntries_AndBroadcast() {
+        // Arrange
+        provider.authenticate(request("Secret1!"));
+
+        // Act
+        cache.invalidate("batch_client");
+        provider.authenticate(request("Secret1!"));
+
+        // Assert
+        verify(delegate, times(2)).authenticate(any());
+        verify(kafkaProducerService).broadcast(BasicCredentialCache.INVALIDATION_TOPIC, "batch_client", "batch_client");
+    }
+
+    private static UsernamePasswordAuthenticationToken request(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated("batch_client", password);
+    }
+}
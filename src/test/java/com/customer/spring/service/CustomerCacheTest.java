@@ -0,0 +1,80 @@
+package com.customer.spring.service;
+
+import com.customer.spring.entity.Customer;
+import com.customer.spring.mapper.CustomerMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomerCacheTest {
+
+    private KafkaProducerService kafkaProducerService;
+    private CustomerCache cache;
+
+    @BeforeEach
+    void setUp() {
+        kafkaProducerService = mock(KafkaProducerService.class);
+        cache = new CustomerCache(kafkaProducerService, CustomerMapper.INSTANCE, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void get_ShouldLoadOnce_AndServeLaterReadsFromTheCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> customer(id, 0L, "Load " + loads.incrementAndGet()));
+        String name = cache.get(1L, id -> customer(id, 0L, "Load " + loads.incrementAndGet())).getName();
+
+        assertEquals("Load 1", name);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldDropTheEntryAndBroadcastIdAndVersion() {
+        cache.get(1L, id -> customer(id, 0L, "Before"));
+
+        cache.invalidate(1L, 1L);
+
+        assertEquals("After", cache.get(1L, id -> customer(id, 1L, "After")).getName());
+        verify(kafkaProducerService, times(1)).broadcast(CustomerCache.INVALIDATION_TOPIC, "1", "1:1");
+    }
+
+    @Test
+    void get_ShouldNotCacheARowOlderThanTheLastInvalidation() {
+        // Arrange: a load that read version 1 before the write of version 2 finishes after its invalidation
+        cache.onInvalidation("1:2");
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        String stale = cache.get(1L, id -> customer(id, 1L, "Stale " + loads.incrementAndGet())).getName();
+        String fresh = cache.get(1L, id -> customer(id, 2L, "Fresh " + loads.incrementAndGet())).getName();
+        String cached = cache.get(1L, id -> customer(id, 2L, "Again " + loads.incrementAndGet())).getName();
+
+        // Assert
+        assertEquals("Stale 1", stale);
+        assertEquals("Fresh 2", fresh);
+        assertEquals("Fresh 2", cached);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onInvalidation_ShouldAcceptMessagesWithoutAVersion() {
+        cache.get(1L, id -> customer(id, 3L, "Before"));
+
+        cache.onInvalidation("1");
+
+        assertEquals("After", cache.get(1L, id -> customer(id, 3L, "After")).getName());
+    }
+
+    private static Customer customer(long id, long version, String name) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setVersion(version);
+        customer.setName(name);
+        return customer;
+    }
+}
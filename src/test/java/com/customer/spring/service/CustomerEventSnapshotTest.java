@@ -0,0 +1,106 @@
+package com.customer.spring.service;
+
+import com.customer.spring.entity.Customer;
+import com.customer.spring.exception.ServiceOverloadedException;
+import com.customer.spring.mapper.CustomerEventCodec;
+import com.customer.spring.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomerEventSnapshotTest {
+
+    private CustomerRepository customerRepository;
+    private OutboxService outboxService;
+    private TransactionTemplate transactionTemplate;
+    private CustomerEventSnapshot customerEventSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        outboxService = mock(OutboxService.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        customerEventSnapshot = new CustomerEventSnapshot(customerRepository, outboxService, transactionTemplate, Runnable::run, false, 2);
+    }
+
+    @Test
+    void startInBackground_ShouldWalkTableByIdInBatches_AndAppendSnapshotEvents() {
+        // Arrange
+        when(customerRepository.lockSnapshotBatch(0L, PageRequest.of(0, 2))).thenReturn(List.of(customer(1L), customer(4L)));
+        when(customerRepository.lockSnapshotBatch(4L, PageRequest.of(0, 2))).thenReturn(List.of(customer(9L)));
+
+        // Act
+        boolean started = customerEventSnapshot.startInBackground();
+
+        // Assert
+        assertTrue(started);
+        verify(outboxService, times(3)).append(eq(CustomerService.CUSTOMER_EVENTS_TOPIC), anyString(), any());
+        verify(customerRepository, times(2)).lockSnapshotBatch(anyLong(), any());
+        ArgumentCaptor<byte[]> event = ArgumentCaptor.forClass(byte[].class);
+        verify(outboxService).append(eq(CustomerService.CUSTOMER_EVENTS_TOPIC), eq("9"), event.capture());
+        assertEquals(CustomerEventCodec.Type.SNAPSHOT, CustomerEventCodec.decode(event.getValue()).type());
+    }
+
+    @Test
+    void startInBackground_ShouldSubmitOneTaskPerBatch_AndRefuseASecondRun() {
+        // Arrange
+        List<Runnable> tasks = new ArrayList<>();
+        CustomerEventSnapshot snapshot =
+                new CustomerEventSnapshot(customerRepository, outboxService, transactionTemplate, tasks::add, false, 2);
+        when(customerRepository.lockSnapshotBatch(0L, PageRequest.of(0, 2))).thenReturn(List.of(customer(1L), customer(4L)));
+        when(customerRepository.lockSnapshotBatch(4L, PageRequest.of(0, 2))).thenReturn(List.of(customer(9L)));
+
+        // Act
+        boolean started = snapshot.startInBackground();
+        boolean startedAgain = snapshot.startInBackground();
+
+        // Assert: nothing has run on the caller's thread
+        assertTrue(started);
+        assertFalse(startedAgain);
+        assertEquals(1, tasks.size());
+        verifyNoInteractions(customerRepository);
+
+        tasks.get(0).run();
+        assertEquals(2, tasks.size());
+        assertFalse(snapshot.startInBackground());
+        tasks.get(1).run();
+        assertEquals(2, tasks.size());
+        verify(outboxService, times(3)).append(eq(CustomerService.CUSTOMER_EVENTS_TOPIC), anyString(), any());
+
+        // A finished run lets the next one start
+        assertTrue(snapshot.startInBackground());
+        assertEquals(3, tasks.size());
+    }
+
+    @Test
+    void startInBackground_ShouldReportOverload_WhenTheExecutorRejectsTheFirstBatch() {
+        // Arrange
+        CustomerEventSnapshot snapshot = new CustomerEventSnapshot(customerRepository, outboxService, transactionTemplate,
+                task -> {
+                    throw new TaskRejectedException("Async executor is saturated");
+                }, false, 2);
+
+        // Act & Assert: the rejected run does not count as running, so a retry reaches the executor again
+        assertThrows(ServiceOverloadedException.class, snapshot::startInBackground);
+        assertThrows(ServiceOverloadedException.class, snapshot::startInBackground);
+    }
+
+    private static Customer customer(long id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setName("Customer " + id);
+        return customer;
+    }
+}
@@ -0,0 +1,92 @@
+package com.customer.spring.service;
+
+import com.customer.spring.entity.CustomerSearchCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomerSearchCacheTest {
+
+    private KafkaProducerService kafkaProducerService;
+    private CustomerSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        kafkaProducerService = mock(KafkaProducerService.class);
+        cache = new CustomerSearchCache(kafkaProducerService, true, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void get_ShouldReuseResult_ForCriteriaDifferingOnlyInTextCase() {
+        AtomicInteger loads = new AtomicInteger();
+        CustomerSearchCriteria lower = new CustomerSearchCriteria();
+        lower.setName("john");
+        CustomerSearchCriteria upper = new CustomerSearchCriteria();
+        upper.setName("JOHN");
+
+        cache.get("page", lower, 0, 10, () -> Map.of("load", loads.incrementAndGet()));
+        Map<String, Object> cached = cache.get("page", upper, 0, 10, () -> Map.of("load", loads.incrementAndGet()));
+
+        assertEquals(1, cached.get("load"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldBumpGenerationAndBroadcast() {
+        AtomicInteger loads = new AtomicInteger();
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+
+        cache.get("page", criteria, 0, 10, () -> Map.of("load", loads.incrementAndGet()));
+        cache.invalidate();
+        Map<String, Object> reloaded = cache.get("page", criteria, 0, 10, () -> Map.of("load", loads.incrementAndGet()));
+
+        assertEquals(2, reloaded.get("load"));
+        verify(kafkaProducerService, times(1)).broadcast(eq(CustomerSearchCache.INVALIDATION_TOPIC), isNull(), anyString());
+    }
+
+    @Test
+    void get_ShouldRunOneLoad_ForConcurrentIdenticalMisses() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> cache.get("page", criteria, 0, 10, () -> {
+                    loads.incrementAndGet();
+                    awaitQuietly(release);
+                    return Map.of();
+                }));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.customer.spring.service;
+
+import com.customer.spring.dto.CustomerDTO;
+import com.customer.spring.entity.Customer;
+import com.customer.spring.entity.CustomerSearchCriteria;
+import com.customer.spring.mapper.CustomerEventCodec;
+import com.customer.spring.mapper.CustomerMapper;
+import com.customer.spring.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CustomerSearchIndexTest {
+
+    private CustomerRepository customerRepository;
+    private CustomerSearchCache customerSearchCache;
+    private CustomerSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        customerSearchCache = mock(CustomerSearchCache.class);
+        index = new CustomerSearchIndex(customerRepository, CustomerMapper.INSTANCE, customerSearchCache, true, 2);
+
+        when(customerRepository.searchCustomersAfter(any(), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        customer(1L, "John Doe", "john@example.com", "Tech", "enabled"),
+                        customer(2L, "Jane Smith", "jane@example.com", "Retail", "enabled")));
+        when(customerRepository.searchCustomersAfter(any(), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(customer(3L, "Johnny Bravo", "bravo@example.com", "Tech", "disabled")));
+        index.build();
+    }
+
+    @Test
+    void build_ShouldWalkTableInKeysetPages() {
+        assertTrue(index.isReady());
+        verify(customerRepository, times(1)).searchCustomersAfter(any(), eq(0L), any(Pageable.class));
+        verify(customerRepository, times(1)).searchCustomersAfter(any(), eq(2L), any(Pageable.class));
+    }
+
+    @Test
+    void searchPage_ShouldMatchSubstringCaseInsensitively() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        criteria.setName("JOHN");
+
+        Page<CustomerDTO> page = index.searchPage(criteria, PageRequest.of(0, 10));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of(1L, 3L), page.getContent().stream().map(CustomerDTO::getId).toList());
+    }
+
+    @Test
+    void searchPage_ShouldIntersectTextTermsWithExactFilters() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        criteria.setCustomerEmail("example.com");
+        criteria.setIndustry("Tech");
+        criteria.setStatus("enabled");
+
+        Page<CustomerDTO> page = index.searchPage(criteria, PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L), page.getContent().stream().map(CustomerDTO::getId).toList());
+    }
+
+    @Test
+    void searchPage_ShouldMatchTermsShorterThanATrigram() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        criteria.setName("ny");
+
+        assertEquals(1, index.count(criteria));
+    }
+
+    @Test
+    void searchSlice_ShouldReportHasNextWithoutCounting() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+
+        Slice<CustomerDTO> first = index.searchSlice(criteria, PageRequest.of(0, 2));
+        Slice<CustomerDTO> last = index.searchSlice(criteria, PageRequest.of(1, 2));
+
+        assertTrue(first.hasNext());
+        assertEquals(2, first.getContent().size());
+        assertFalse(last.hasNext());
+        assertEquals(List.of(3L), last.getContent().stream().map(CustomerDTO::getId).toList());
+    }
+
+    @Test
+    void index_ShouldReplaceUpdatedCustomer() {
+        Customer updated = customer(1L, "Jack Black", "jack@example.com", "Retail", "disabled");
+        updated.setVersion(1L);
+        index.index(updated);
+
+        CustomerSearchCriteria byOldName = new CustomerSearchCriteria();
+        byOldName.setName("john doe");
+        CustomerSearchCriteria byNewName = new CustomerSearchCriteria();
+        byNewName.setName("jack");
+        byNewName.setStatus("disabled");
+        CustomerSearchCriteria byOldIndustry = new CustomerSearchCriteria();
+        byOldIndustry.setIndustry("Tech");
+
+        assertEquals(0, index.count(byOldName));
+        assertEquals(1, index.count(byNewName));
+        assertEquals(1, index.count(byOldIndustry));
+    }
+
+    @Test
+    void index_ShouldKeepTheNewerVersion_WhenAnOlderOneArrivesLater() {
+        Customer renamed = customer(1L, "Jack Black", "jack@example.com", "Tech", "enabled");
+        renamed.setVersion(2L);
+        index.index(renamed);
+        Customer staleBuildRow = customer(1L, "John Doe", "john@example.com", "Tech", "enabled");
+        staleBuildRow.setVersion(1L);
+
+        index.index(staleBuildRow);
+
+        CustomerSearchCriteria byNewName = new CustomerSearchCriteria();
+        byNewName.setName("jack");
+        assertEquals(1, index.count(byNewName));
+    }
+
+    @Test
+    void onCustomerEvent_ShouldApplyAnotherReplicasWriteAndInvalidateTheSearchCache() {
+        Customer remote = customer(2L, "Jane Doe", "jane@example.com", "Retail", "disabled");
+        remote.setVersion(1L);
+
+        index.onCustomerEvent(CustomerEventCodec.encode(CustomerEventCodec.Type.UPDATED, Instant.now(), remote));
+        index.onCustomerEvent(CustomerEventCodec.encode(CustomerEventCodec.Type.UPDATED, Instant.now(), remote));
+
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        criteria.setName("jane doe");
+        criteria.setStatus("disabled");
+        assertEquals(1, index.count(criteria));
+        // The replayed event is not newer than the entry, so it changes nothing.
+        verify(customerSearchCache, times(1)).invalidateLocally();
+    }
+
+    @Test
+    void searchPage_ShouldNotMatchNullFields_EvenWithAnEmptyTerm() {
+        Customer withoutAddress = customer(4L, "Jim", "jim@example.com", "Tech", "enabled");
+        withoutAddress.setAddress(null);
+        index.index(withoutAddress);
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        criteria.setAddress("");
+
+        Page<CustomerDTO> page = index.searchPage(criteria, PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 2L, 3L), page.getContent().stream().map(CustomerDTO::getId).toList());
+    }
+
+    @Test
+    void index_ShouldIgnoreWrites_WhenDisabled() {
+        CustomerSearchIndex disabled = new CustomerSearchIndex(customerRepository, CustomerMapper.INSTANCE,
+                customerSearchCache, false, 2);
+
+        disabled.build();
+        disabled.index(customer(4L, "Jim", "jim@example.com", "Tech", "enabled"));
+
+        assertFalse(disabled.isReady());
+        assertEquals(0, disabled.count(new CustomerSearchCriteria()));
+    }
+
+    private static Customer customer(long id, String name, String email, String industry, String status) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setName(name);
+        customer.setCustomerEmail(email);
+        customer.setCustomerPhoneNumber("555-000" + id);
+        customer.setAddress(id + " Main Street");
+        customer.setIndustry(industry);
+        customer.setCompanySize(10);
+        customer.setStatus(status);
+        return customer;
+    }
+}
@@ -1,32 +1,44 @@
 package com.customer.spring.service;
 
+import com.customer.spring.dto.CustomerBatchResultDTO;
 import com.customer.spring.dto.CustomerDTO;
 import com.customer.spring.entity.Customer;
 import com.customer.spring.entity.CustomerSearchCriteria;
 import com.customer.spring.exception.ConflictException;
+import com.customer.spring.mapper.CustomerEventCodec;
 import com.customer.spring.mapper.CustomerMapper;
 import com.customer.spring.repository.CustomerRepository;
 import com.sun.jdi.request.InvalidRequestStateException;
 import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,12 +52,31 @@ class CustomerServiceTest {
     @Mock
     private CustomerMapper customerMapper;
 
+    @Mock
+    private CustomerSearchIndex customerSearchIndex;
+
+    @Mock
+    private CustomerCache customerCache;
+
+    @Mock
+    private CustomerSearchCache customerSearchCache;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private CustomerService customerService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(customerSearchCache.get(anyString(), any(), anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Map<String, Object>>>getArgument(4).get());
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @AfterEach
@@ -132,8 +163,6 @@ class CustomerServiceTest {
         customerEntity.setName("John Doe");
         customerEntity.setCustomerEmail("test@example.com");
 
-        when(customerRepository.findByCustomerEmail(anyString()))
-                .thenReturn(Optional.empty());
         when(customerMapper.toEntity(any(CustomerDTO.class)))
                 .thenReturn(customerEntity);
         when(customerRepository.save(any(Customer.class)))
@@ -146,7 +175,7 @@ class CustomerServiceTest {
 
         // Assert
         assertEquals(1L, id);
-        verify(customerRepository, times(1)).findByCustomerEmail("test@example.com");
+        verify(customerRepository, never()).findByCustomerEmail(anyString());
         verify(customerRepository, times(1)).save(customerEntity);
     }
 
@@ -169,8 +198,6 @@ class CustomerServiceTest {
         customerEntity.setName("John Doe");
         customerEntity.setCustomerEmail("test@example.com");
 
-        when(customerRepository.findByCustomerPhoneNumber(anyString()))
-                .thenReturn(Optional.empty());
         when(customerMapper.toEntity(any(CustomerDTO.class)))
                 .thenReturn(customerEntity);
         when(customerRepository.save(any(Customer.class)))
@@ -183,7 +210,7 @@ class CustomerServiceTest {
 
         // Assert
         assertEquals(1L, id);
-        verify(customerRepository, times(1)).findByCustomerPhoneNumber("1234567890");
+        verify(customerRepository, never()).findByCustomerPhoneNumber(anyString());
         verify(customerRepository, times(1)).save(customerEntity);
     }
 
@@ -199,11 +226,13 @@ class CustomerServiceTest {
         customerDTO.setCustomerPhoneNumber("1234567890");
         customerDTO.setStatus("enabled");
 
-        Customer existingCustomer = new Customer();
-        existingCustomer.setCustomerEmail("test@example.com");
+        Customer customerEntity = new Customer();
+        customerEntity.setCustomerEmail("test@example.com");
 
-        when(customerRepository.findByCustomerEmail("test@example.com"))
-                .thenReturn(Optional.of(existingCustomer));
+        when(customerMapper.toEntity(any(CustomerDTO.class)))
+                .thenReturn(customerEntity);
+        when(customerRepository.save(customerEntity))
+                .thenThrow(uniqueViolation(Customer.EMAIL_CONSTRAINT));
 
         // Act & Assert
         ConflictException exception = assertThrows(ConflictException.class,
@@ -213,8 +242,8 @@ class CustomerServiceTest {
         assertEquals("Email address already in use: test@example.com", exception.getMessage());
 
         // Verify repository interactions
-        verify(customerRepository, times(1)).findByCustomerEmail("test@example.com");
-        verify(customerRepository, never()).save(any());
+        verify(customerRepository, never()).findByCustomerEmail(anyString());
+        verify(customerRepository, times(1)).save(customerEntity);
     }
 
 
@@ -230,11 +259,13 @@ class CustomerServiceTest {
         customerDTO.setCustomerPhoneNumber("1234567890");
         customerDTO.setStatus("enabled");
 
-        Customer existingCustomer = new Customer();
-        existingCustomer.setCustomerPhoneNumber("1234567890");
+        Customer customerEntity = new Customer();
+        customerEntity.setCustomerPhoneNumber("1234567890");
 
-        when(customerRepository.findByCustomerPhoneNumber("1234567890"))
-                .thenReturn(Optional.of(existingCustomer));
+        when(customerMapper.toEntity(any(CustomerDTO.class)))
+                .thenReturn(customerEntity);
+        when(customerRepository.save(customerEntity))
+                .thenThrow(uniqueViolation(Customer.PHONE_NUMBER_CONSTRAINT));
 
         // Act & Assert
         ConflictException exception = assertThrows(ConflictException.class,
@@ -244,8 +275,8 @@ class CustomerServiceTest {
         assertEquals("Phone number already in use: 1234567890", exception.getMessage());
 
         // Verify repository interactions
-        verify(customerRepository, times(1)).findByCustomerPhoneNumber("1234567890");
-        verify(customerRepository, never()).save(any());
+        verify(customerRepository, never()).findByCustomerPhoneNumber(anyString());
+        verify(customerRepository, times(1)).save(customerEntity);
     }
 
 
@@ -282,8 +313,6 @@ class CustomerServiceTest {
         customerEntity.setAddress("defaultAddress");
         customerEntity.setOtherCustomerData("defaultOther_Cust_data");
 
-        when(customerRepository.findByCustomerEmail(anyString()))
-                .thenReturn(Optional.empty());
         when(customerMapper.toEntity(any(CustomerDTO.class)))
                 .thenAnswer(invocation -> {
                     CustomerDTO inputDTO = invocation.getArgument(0);
@@ -303,7 +332,6 @@ class CustomerServiceTest {
         assertEquals(1L, id);
         assertEquals("defaultAddress", customerDTO.getAddress());
         assertEquals("defaultOther_Cust_data", customerDTO.getOtherCustomerData());
-        verify(customerRepository, times(1)).findByCustomerEmail("test@example.com");
         verify(customerRepository, times(1)).save(customerEntity);
     }
 
@@ -441,6 +469,11 @@ class CustomerServiceTest {
         verify(customerRepository, times(1)).findById(customerId);
         verify(customerRepository, times(1)).save(existingCustomer);
         verify(customerMapper, times(1)).toDto(updatedCustomer);
+        ArgumentCaptor<byte[]> event = ArgumentCaptor.forClass(byte[].class);
+        verify(outboxService, times(1)).append(eq(CustomerService.CUSTOMER_EVENTS_TOPIC), eq("1"), event.capture());
+        CustomerEventCodec.CustomerEvent decoded = CustomerEventCodec.decode(event.getValue());
+        assertEquals(CustomerEventCodec.Type.UPDATED, decoded.type());
+        assertEquals("Updated Name", decoded.customer().getName());
     }
 
     @Test
@@ -777,4 +810,294 @@ class CustomerServiceTest {
 
 
 
+    @Test
+    void createCustomers_ShouldReportPerRowResults_WhenSomeRowsAreInvalidOrDuplicated() {
+        CustomerDTO valid = createCustomerDTO("a@example.com", "111");
+        CustomerDTO invalid = createCustomerDTOWithNullEmail();
+        CustomerDTO existing = createCustomerDTO("taken@example.com", "222");
+        CustomerDTO duplicateInBatch = createCustomerDTO("a@example.com", "333");
+
+        Customer entity = new Customer();
+        when(customerRepository.findExistingEmails(anyCollection())).thenReturn(List.of("taken@example.com"));
+        when(customerRepository.findExistingPhoneNumbers(anyCollection())).thenReturn(List.of());
+        when(customerMapper.toEntity(valid)).thenReturn(entity);
+        when(customerRepository.saveAll(List.of(entity))).thenAnswer(invocation -> {
+            entity.setId(7L);
+            return List.of(entity);
+        });
+
+        Map<String, Object> response = customerService.createCustomers(List.of(valid, invalid, existing, duplicateInBatch));
+
+        assertEquals(1L, response.get("created"));
+        assertEquals(3L, response.get("failed"));
+        assertEquals(List.of(
+                new CustomerBatchResultDTO(0, 7L, "created", null),
+                new CustomerBatchResultDTO(1, null, "failed", "Please enter the Email address."),
+                new CustomerBatchResultDTO(2, null, "failed", "Email address already in use: taken@example.com"),
+                new CustomerBatchResultDTO(3, null, "failed", "Email address already in use: a@example.com")
+        ), response.get("results"));
+        verify(customerRepository, times(1)).saveAll(List.of(entity));
+        verify(customerRepository, never()).findByCustomerEmail(anyString());
+    }
+
+    @Test
+    void createCustomers_ShouldThrowInvalidRequestStateException_WhenListIsEmpty() {
+        InvalidRequestStateException exception = assertThrows(InvalidRequestStateException.class,
+                () -> customerService.createCustomers(List.of()));
+
+        assertEquals("The customer list is either not entered or empty.", exception.getMessage());
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void updateCustomer_ShouldThrowConflictException_WhenEmailAlreadyInUse() {
+        long customerId = 1L;
+        CustomerDTO requestDTO = new CustomerDTO();
+        requestDTO.setName("Updated Name");
+        requestDTO.setCustomerEmail("taken@example.com");
+
+        Customer existingCustomer = new Customer();
+        existingCustomer.setId(customerId);
+
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(existingCustomer));
+        when(customerRepository.save(existingCustomer)).thenThrow(uniqueViolation(Customer.EMAIL_CONSTRAINT));
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> customerService.updateCustomer(customerId, requestDTO));
+
+        assertEquals("Email address already in use: taken@example.com", exception.getMessage());
+        verifyNoInteractions(customerMapper);
+    }
+
+    @Test
+    void updateCustomer_ShouldThrowConflictException_WhenCustomerWasChangedConcurrently() {
+        long customerId = 1L;
+        CustomerDTO requestDTO = new CustomerDTO();
+        requestDTO.setName("Updated Name");
+
+        Customer existingCustomer = new Customer();
+        existingCustomer.setId(customerId);
+        existingCustomer.setVersion(3L);
+
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(existingCustomer));
+        when(customerRepository.save(existingCustomer))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Customer.class, customerId));
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> customerService.updateCustomer(customerId, requestDTO));
+
+        assertEquals("Customer with ID 1 was changed concurrently, please retry", exception.getMessage());
+        verifyNoInteractions(customerSearchIndex);
+    }
+
+    @Test
+    void searchCustomerSlice_ShouldReturnHasNextWithoutCount() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        Pageable pageable = PageRequest.of(0, 10);
+        Customer customer = new Customer();
+        CustomerDTO customerDTO = new CustomerDTO();
+
+        when(customerRepository.searchCustomerSlice(criteria, pageable))
+                .thenReturn(new SliceImpl<>(List.of(customer), pageable, true));
+        when(customerMapper.toDto(customer)).thenReturn(customerDTO);
+
+        Map<String, Object> response = customerService.searchCustomerSlice(criteria, 0, 10);
+
+        assertEquals(true, response.get("has_next"));
+        assertEquals(0, response.get("current_page"));
+        assertEquals(List.of(customerDTO), response.get("results"));
+        assertFalse(response.containsKey("total_count"));
+        verify(customerRepository, never()).searchCustomers(any(), any());
+        verify(customerRepository, never()).countCustomers(any());
+    }
+
+    @Test
+    void countCustomers_ShouldReturnTotalCount() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        when(customerRepository.countCustomers(criteria)).thenReturn(42L);
+
+        assertEquals(42L, customerService.countCustomers(criteria).get("total_count"));
+    }
+
+    @Test
+    void searchCustomersAfter_ShouldReturnNextCursor_WhenMoreRowsExist() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        Customer first = new Customer();
+        first.setId(11L);
+        Customer second = new Customer();
+        second.setId(12L);
+        CustomerDTO firstDTO = new CustomerDTO();
+        firstDTO.setId(11L);
+
+        when(customerRepository.searchCustomersAfter(criteria, 0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second));
+        when(customerMapper.toDto(first)).thenReturn(firstDTO);
+
+        Map<String, Object> response = customerService.searchCustomersAfter(criteria, "", 1);
+
+        assertEquals(true, response.get("has_next"));
+        assertEquals(List.of(firstDTO), response.get("results"));
+        verify(customerMapper, never()).toDto(second);
+
+        String cursor = (String) response.get("next_cursor");
+        when(customerRepository.searchCustomersAfter(criteria, 11L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(second));
+        when(customerMapper.toDto(second)).thenReturn(new CustomerDTO());
+
+        Map<String, Object> lastPage = customerService.searchCustomersAfter(criteria, cursor, 1);
+
+        assertEquals(false, lastPage.get("has_next"));
+        assertNull(lastPage.get("next_cursor"));
+    }
+
+    @Test
+    void searchCustomersAfter_ShouldThrowIllegalArgumentException_WhenCursorIsMalformed() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> customerService.searchCustomersAfter(criteria, "not-a-cursor", 10));
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void searchCustomers_ShouldUseSearchIndex_WhenIndexIsReady() {
+        CustomerSearchCriteria criteria = new CustomerSearchCriteria();
+        criteria.setName("john");
+        Pageable pageable = PageRequest.of(0, 10);
+        CustomerDTO customerDTO = new CustomerDTO();
+
+        when(customerSearchIndex.isReady()).thenReturn(true);
+        when(customerSearchIndex.searchPage(criteria, pageable))
+                .thenReturn(new PageImpl<>(List.of(customerDTO), pageable, 1));
+
+        Map<String, Object> response = customerService.searchCustomers(criteria, 0, 10);
+
+        assertEquals(1L, response.get("total_count"));
+        assertEquals(List.of(customerDTO), response.get("results"));
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void statusToggle_ShouldUpdateSearchIndexAndInvalidateCache() {
+        Customer existingCustomer = new Customer();
+        existingCustomer.setId(1L);
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(existingCustomer));
+        when(customerRepository.save(existingCustomer)).thenReturn(existingCustomer);
+
+        customerService.statusToggle(1L, "disabled");
+
+        verify(customerSearchIndex, times(1)).index(existingCustomer);
+        verify(customerCache, times(1)).invalidate(1L, null);
+        verify(customerSearchCache, times(1)).invalidate();
+        ArgumentCaptor<byte[]> event = ArgumentCaptor.forClass(byte[].class);
+        verify(outboxService, times(1)).append(eq(CustomerService.CUSTOMER_EVENTS_TOPIC), eq("1"), event.capture());
+        assertEquals(CustomerEventCodec.Type.STATUS_CHANGED, CustomerEventCodec.decode(event.getValue()).type());
+    }
+
+    @Test
+    void createCustomers_ShouldAppendOneEventPerInsertedRow_InTheInsertTransaction() {
+        // Arrange
+        CustomerDTO first = createCustomerDTO("first@example.com", "111");
+        CustomerDTO second = createCustomerDTO("second@example.com", "222");
+        Customer firstEntity = new Customer();
+        Customer secondEntity = new Customer();
+        when(customerRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        when(customerRepository.findExistingPhoneNumbers(anyCollection())).thenReturn(List.of());
+        when(customerMapper.toEntity(first)).thenReturn(firstEntity);
+        when(customerMapper.toEntity(second)).thenReturn(secondEntity);
+        when(customerRepository.saveAll(List.of(firstEntity, secondEntity))).thenAnswer(invocation -> {
+            firstEntity.setId(1L);
+            secondEntity.setId(2L);
+            return List.of(firstEntity, secondEntity);
+        });
+
+        // Act
+        customerService.createCustomers(List.of(first, second));
+
+        // Assert
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(outboxService, times(1)).append(eq(CustomerService.CUSTOMER_EVENTS_TOPIC), eq("1"), any(byte[].class));
+        verify(outboxService, times(1)).append(eq(CustomerService.CUSTOMER_EVENTS_TOPIC), eq("2"), any(byte[].class));
+    }
+
+    @Test
+    void createCustomer_ShouldNotAppendEvent_WhenInsertViolatesUniqueConstraint() {
+        // Arrange
+        CustomerDTO customerDTO = createCustomerDTO("taken@example.com", "111");
+        Customer entity = new Customer();
+        when(customerMapper.toEntity(customerDTO)).thenReturn(entity);
+        when(customerRepository.save(entity)).thenReturn(entity);
+        doThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException(), Customer.EMAIL_CONSTRAINT)))
+                .when(customerRepository).flush();
+
+        // Act
+        assertThrows(ConflictException.class, () -> customerService.createCustomer(customerDTO));
+
+        // Assert
+        verifyNoInteractions(outboxService);
+        verify(customerSearchIndex, never()).index(any());
+    }
+
+    @Test
+    void getCustomer_ShouldLoadThroughCache() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setId(1L);
+
+        when(customerCache.get(eq(1L), any())).thenAnswer(invocation ->
+                customerDTO.getId().equals(invocation.<Function<Long, Customer>>getArgument(1).apply(1L).getId())
+                        ? customerDTO : null);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+
+        assertEquals(customerDTO, customerService.getCustomer(1L));
+        verify(customerRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getCustomer_ShouldThrowEntityNotFoundException_WhenCustomerDoesNotExist() {
+        when(customerCache.get(eq(1L), any())).thenAnswer(invocation ->
+                invocation.<Function<Long, Customer>>getArgument(1).apply(1L));
+        when(customerRepository.findById(1L)).thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> customerService.getCustomer(1L));
+
+        assertEquals("Customer with ID 1 not found in the Database", exception.getMessage());
+    }
+
+    @Test
+    void updateCustomer_ShouldInvalidateCachedCustomer() {
+        Customer existingCustomer = new Customer();
+        existingCustomer.setId(1L);
+        CustomerDTO requestDTO = new CustomerDTO();
+        requestDTO.setName("Updated Name");
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(existingCustomer));
+        when(customerRepository.save(existingCustomer)).thenReturn(existingCustomer);
+
+        customerService.updateCustomer(1L, requestDTO);
+
+        verify(customerCache, times(1)).invalidate(1L, null);
+    }
+
+    private static DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException("duplicate key"), constraintName));
+    }
+
+    private static CustomerDTO createCustomerDTO(String email, String phoneNumber) {
+        CustomerDTO customerDTO = new CustomerDTO();
+        customerDTO.setName("John Doe");
+        customerDTO.setCustomerEmail(email);
+        customerDTO.setIndustry("Tech");
+        customerDTO.setCompanySize(50);
+        customerDTO.setAddress("123 Main Street");
+        customerDTO.setCustomerPhoneNumber(phoneNumber);
+        customerDTO.setStatus("enabled");
+        return customerDTO;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.customer.spring.service;
+
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private static final Instant ROTATION = Instant.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rotate_ShouldSwitchSigningKeyAtActivation_AndRetireOldKeyAfterGrace() throws Exception {
+        // Arrange
+        MutableClock clock = new MutableClock(ROTATION.minusSeconds(60));
+        String secrets = "k1:" + secret() + ",k2:" + secret() + "@" + ROTATION;
+        JwtKeyRing keyRing = new JwtKeyRing(() -> JwtKeyRing.parseSecrets(secrets, ROTATION.minus(Duration.ofDays(30))),
+                Duration.ofHours(1), clock);
+
+        // Act & Assert
+        assertEquals("k1", keyRing.signingKey().id());
+        assertNotNull(keyRing.verificationKey("k2"));
+
+        clock.now = ROTATION.plusSeconds(1);
+        keyRing.rotate();
+        assertEquals("k2", keyRing.signingKey().id());
+        assertNotNull(keyRing.verificationKey("k1"));
+
+        clock.now = ROTATION.plus(Duration.ofHours(2));
+        keyRing.rotate();
+        assertNull(keyRing.verificationKey("k1"));
+        assertNotNull(keyRing.verificationKey("k2"));
+    }
+
+    @Test
+    void inlineSecretsWithoutInstants_ShouldActivateAfterTheDelay_AndKeepTheOldKeyForTheGracePeriod() throws Exception {
+        // Arrange: "old:...,new:..." as documented, with the new secret just added
+        MutableClock clock = new MutableClock(ROTATION);
+        String secrets = "old:" + secret() + ",new:" + secret();
+        JwtKeyRing keyRing = new JwtKeyRing(JwtKeyRing.keySource("", "", secrets, Duration.ofMinutes(2), clock),
+                Duration.ofHours(1), clock);
+        String oldToken = new JWTService(keyRing, 100, new SimpleMeterRegistry()).generateToken("john_doe");
+
+        // Act & Assert: the old key keeps signing until the new one activates
+        assertEquals("old", keyRing.signingKey().id());
+        assertNotNull(keyRing.verificationKey("new"));
+
+        clock.now = ROTATION.plus(Duration.ofMinutes(3));
+        keyRing.reload();
+        assertEquals("new", keyRing.signingKey().id());
+
+        clock.now = ROTATION.plus(Duration.ofMinutes(30));
+        keyRing.reload();
+        assertEquals("john_doe", new JWTService(keyRing, 100, new SimpleMeterRegistry()).verify(oldToken).username());
+
+        clock.now = ROTATION.plus(Duration.ofMinutes(2)).plus(Duration.ofHours(1)).plusSeconds(1);
+        keyRing.reload();
+        assertNull(keyRing.verificationKey("old"));
+        assertThrows(SignatureException.class,
+                () -> new JWTService(keyRing, 100, new SimpleMeterRegistry()).verify(oldToken));
+    }
+
+    @Test
+    void tokens_ShouldVerifyAcrossInstances_SharingTheConfiguredKeys() throws Exception {
+        // Arrange
+        String secrets = "shared:" + secret();
+        JWTService first = new JWTService(new JwtKeyRing("", "", secrets, Duration.ZERO, Duration.ofHours(1)), 100, new SimpleMeterRegistry());
+        JWTService second = new JWTService(new JwtKeyRing("", "", secrets, Duration.ZERO, Duration.ofHours(1)), 100, new SimpleMeterRegistry());
+        JWTService other = new JWTService(new JwtKeyRing("", "", "", Duration.ZERO, Duration.ofHours(1)), 100, new SimpleMeterRegistry());
+
+        // Act
+        String token = first.generateToken("john_doe");
+
+        // Assert
+        assertEquals("john_doe", second.verify(token).username());
+        assertThrows(SignatureException.class, () -> other.verify(token));
+    }
+
+    @Test
+    void keyStore_ShouldLoadSecretEntriesByAlias() throws Exception {
+        // Arrange
+        Path path = Files.createTempFile(tempDir, "jwt", ".p12");
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        keyStore.setEntry("2026-q1", new KeyStore.SecretKeyEntry(hmacKey()),
+                new KeyStore.PasswordProtection("changeit".toCharArray()));
+        try (OutputStream out = Files.newOutputStream(path)) {
+            keyStore.store(out, "changeit".toCharArray());
+        }
+
+        // Act
+        JwtKeyRing keyRing = new JwtKeyRing(path.toString(), "changeit", "", Duration.ZERO, Duration.ofHours(1));
+
+        // Assert
+        assertEquals("2026-q1", keyRing.signingKey().id());
+        assertTrue(keyRing.publicJwks().isEmpty());
+    }
+
+    @Test
+    void asymmetricKeys_ShouldSignAndPublishOnlyPublicJwks() throws Exception {
+        // Arrange
+        KeyPair ec = KeyPairGenerator.getInstance("EC").generateKeyPair();
+        KeyPair ed = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        for (JwtKeyRing.KeyEntry entry : List.of(
+                new JwtKeyRing.KeyEntry("es256", ec.getPrivate(), ec.getPublic(), Instant.EPOCH),
+                new JwtKeyRing.KeyEntry("eddsa", ed.getPrivate(), ed.getPublic(), Instant.EPOCH))) {
+            JwtKeyRing keyRing = new JwtKeyRing(() -> List.of(entry), Duration.ofHours(1), Clock.systemUTC());
+            JWTService jwtService = new JWTService(keyRing, 100, new SimpleMeterRegistry());
+
+            // Act
+            String token = jwtService.generateToken("john_doe");
+            List<Map<String, ?>> jwks = keyRing.publicJwks();
+
+            // Assert
+            assertEquals("john_doe", jwtService.verify(token).username());
+            assertEquals(1, jwks.size());
+            assertEquals(entry.id(), jwks.get(0).get("kid"));
+            assertFalse(jwks.get(0).containsKey("d"));
+        }
+    }
+
+    private static String secret() throws Exception {
+        return Base64.getEncoder().encodeToString(hmacKey().getEncoded());
+    }
+
+    private static SecretKey hmacKey() throws Exception {
+        return KeyGenerator.getInstance("HmacSHA256").generateKey();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.customer.spring.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.springframework.core.task.TaskRejectedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class KafkaProducerServiceTest {
+
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaTemplate<String, byte[]> binaryKafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<Runnable> broadcasts = new ArrayList<>();
+    private final Executor broadcastExecutor = broadcasts::add;
+    private KafkaProducerService kafkaProducerService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        binaryKafkaTemplate = mock(KafkaTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        kafkaProducerService = new KafkaProducerService(kafkaTemplate, binaryKafkaTemplate, broadcastExecutor, meterRegistry);
+    }
+
+    @Test
+    void sendMessage_ShouldSendKeyedRecord_AndCountDelivery() {
+        // Arrange
+        CompletableFuture<SendResult<String, String>> delivery = new CompletableFuture<>();
+        when(kafkaTemplate.send("topic", "key", "value")).thenReturn(delivery);
+
+        // Act
+        CompletableFuture<SendResult<String, String>> result = kafkaProducerService.sendMessage("topic", "key", "value");
+
+        // Assert
+        assertEquals(0L, kafkaProducerService.stats().get("sent_count"));
+        delivery.complete(null);
+        assertTrue(result.isDone());
+        assertEquals(1L, kafkaProducerService.stats().get("sent_count"));
+    }
+
+    @Test
+    void sendMessage_ShouldCountFailures_WithoutThrowingToCaller() {
+        // Arrange
+        when(kafkaTemplate.send("topic", null, "async-failure"))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("broker unavailable")));
+        when(kafkaTemplate.send("topic", null, "sync-failure")).thenThrow(new IllegalStateException("closed"));
+
+        // Act
+        kafkaProducerService.sendMessage("topic", "async-failure");
+        kafkaProducerService.sendMessage("topic", "sync-failure");
+
+        // Assert
+        Map<String, Object> stats = kafkaProducerService.stats();
+        assertEquals(0L, stats.get("sent_count"));
+        assertEquals(2L, stats.get("failed_count"));
+        assertEquals(2L, meterRegistry.get("kafka.send").tags("topic", "topic", "outcome", "failure").timer().count());
+    }
+
+    @Test
+    void sendBytes_ShouldSendThroughBinaryProducer_AndShareStats() {
+        // Arrange
+        byte[] value = {1, 2, 3};
+        when(binaryKafkaTemplate.send("topic", "key", value)).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        kafkaProducerService.sendBytes("topic", "key", value);
+
+        // Assert
+        verify(binaryKafkaTemplate).send("topic", "key", value);
+        verifyNoInteractions(kafkaTemplate);
+        assertEquals(1L, kafkaProducerService.stats().get("sent_count"));
+    }
+
+    @Test
+    void broadcast_ShouldReturnBeforeTheSend_SoABlockedProducerDoesNotHoldTheCaller() {
+        // Arrange
+        when(kafkaTemplate.send("topic", "key", "value")).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        kafkaProducerService.broadcast("topic", "key", "value");
+
+        // Assert: nothing touched the producer on the calling thread
+        verifyNoInteractions(kafkaTemplate);
+        assertEquals(1, broadcasts.size());
+        broadcasts.get(0).run();
+        verify(kafkaTemplate).send("topic", "key", "value");
+        assertEquals(1L, kafkaProducerService.stats().get("sent_count"));
+    }
+
+    @Test
+    void broadcast_ShouldCountAFailure_WhenTheExecutorRejectsIt() {
+        // Arrange
+        KafkaProducerService shedding = new KafkaProducerService(kafkaTemplate, binaryKafkaTemplate,
+                task -> { throw new TaskRejectedException("saturated"); }, meterRegistry);
+
+        // Act
+        shedding.broadcast("topic", "key", "value");
+
+        // Assert
+        verifyNoInteractions(kafkaTemplate);
+        assertEquals(1L, shedding.stats().get("failed_count"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.customer.spring.service;
+
+import com.customer.spring.entity.Users;
+import com.customer.spring.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MyUserDetailsServiceTest {
+
+    private UserRepository userRepository;
+    private MyUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userDetailsService = new MyUserDetailsService(userRepository, mock(BasicCredentialCache.class),
+                new String[]{" ops ", ""});
+    }
+
+    @Test
+    void loadUserByUsername_ShouldGrantOnlyUser_WhenNotAnAdmin() {
+        // Arrange
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice")));
+
+        // Act
+        UserDetails details = userDetailsService.loadUserByUsername("alice");
+
+        // Assert
+        assertEquals(Set.of("USER"), authorities(details));
+    }
+
+    @Test
+    void loadUserByUsername_ShouldAddAdmin_WhenListedAsAdmin() {
+        // Arrange
+        when(userRepository.findByUsername("ops")).thenReturn(Optional.of(user("ops")));
+
+        // Act
+        UserDetails details = userDetailsService.loadUserByUsername("ops");
+
+        // Assert
+        assertEquals(Set.of("USER", "ADMIN"), authorities(details));
+    }
+
+    @Test
+    void loadUserByUsername_ShouldThrow_WhenUserDoesNotExist() {
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("nobody"));
+    }
+
+    private static Users user(String username) {
+        Users user = new Users();
+        user.setUsername(username);
+        user.setPassword("{noop}secret");
+        return user;
+    }
+
+    private static Set<String> authorities(UserDetails details) {
+        return details.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+}
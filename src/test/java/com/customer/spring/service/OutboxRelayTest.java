@@ -0,0 +1,196 @@
+package com.customer.spring.service;
+
+import com.customer.spring.entity.OutboxEvent;
+import com.customer.spring.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private OutboxEventRepository outboxEventRepository;
+    private KafkaProducerService kafkaProducerService;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        kafkaProducerService = mock(KafkaProducerService.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(outboxEventRepository.tryAdvisoryXactLock(OutboxRelay.RELAY_LOCK_KEY)).thenReturn(true);
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaProducerService, transactionTemplate,
+                true, true, 2, Duration.ofSeconds(1), Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @Test
+    void relay_ShouldSendBatchAndDeleteItInOneStatement_UntilABatchComesBackShort() {
+        // Arrange
+        when(outboxEventRepository.lockNextBatch(2))
+                .thenReturn(List.of(event(1L), event(2L)))
+                .thenReturn(List.of(event(3L)));
+        when(kafkaProducerService.sendBytes(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxEventRepository, times(2)).lockNextBatch(2);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(kafkaProducerService).sendBytes(eq("customer-events"), eq("3"), aryEq(payload(3L)));
+        Map<String, Object> stats = outboxRelay.stats();
+        assertEquals(3L, stats.get("relayed_count"));
+        assertEquals(2L, stats.get("batch_count"));
+    }
+
+    @Test
+    void relayBatch_ShouldKeepFailedEventAndEverythingAfterIt() {
+        // Arrange
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(event(1L), event(2L)));
+        when(kafkaProducerService.sendBytes(eq("customer-events"), eq("1"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("broker unavailable")));
+        when(kafkaProducerService.sendBytes(eq("customer-events"), eq("2"), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        int delivered = outboxRelay.relayBatch();
+
+        // Assert
+        assertEquals(0, delivered);
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        assertEquals(2L, outboxRelay.stats().get("failed_count"));
+    }
+
+    @Test
+    void relayBatch_ShouldStopHandingOverRecords_AfterASendFails() {
+        // Arrange
+        when(outboxEventRepository.lockNextBatch(3)).thenReturn(List.of(event(1L), event(2L), event(3L)));
+        when(kafkaProducerService.sendBytes(eq("customer-events"), eq("1"), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaProducerService.sendBytes(eq("customer-events"), eq("2"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("Topic not present in metadata after 500 ms")));
+
+        // Act
+        int delivered = relay(3, Duration.ofSeconds(1)).relayBatch();
+
+        // Assert: event 3 stays in the table for the next run, and was never sent ahead of event 2
+        assertEquals(1, delivered);
+        verify(kafkaProducerService, never()).sendBytes(eq("customer-events"), eq("3"), any());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void relayBatch_ShouldStopSending_WhenTheSendTimeoutRunsOutWhileTheProducerBlocks() {
+        // Arrange
+        when(outboxEventRepository.lockNextBatch(3)).thenReturn(List.of(event(1L), event(2L), event(3L)));
+        when(kafkaProducerService.sendBytes(eq("customer-events"), eq("1"), any())).thenAnswer(invocation -> {
+            Thread.sleep(150); // blocked on a full buffer or missing metadata, up to max.block.ms
+            return CompletableFuture.completedFuture(null);
+        });
+
+        OutboxRelay relay = relay(3, Duration.ofMillis(100));
+
+        // Act
+        int delivered = relay.relayBatch();
+
+        // Assert: the one record handed over is kept, the other two wait for the next run
+        assertEquals(1, delivered);
+        verify(kafkaProducerService, times(1)).sendBytes(anyString(), anyString(), any());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        assertEquals(2L, relay.stats().get("failed_count"));
+    }
+
+    @Test
+    void relay_ShouldSkipTheRun_WhenAnotherReplicaHoldsTheRelayLock() {
+        // Arrange
+        when(outboxEventRepository.tryAdvisoryXactLock(OutboxRelay.RELAY_LOCK_KEY)).thenReturn(false);
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxEventRepository, never()).lockNextBatch(anyInt());
+        verifyNoInteractions(kafkaProducerService);
+        assertEquals(1L, outboxRelay.stats().get("skipped_count"));
+    }
+
+    @Test
+    void relay_ShouldStopDraining_OnceTheDrainBudgetIsSpent() {
+        // Arrange: the backlog keeps returning full batches
+        OutboxRelay budgeted = relay(2, Duration.ofSeconds(1), Duration.ZERO);
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(event(1L), event(2L)));
+        when(kafkaProducerService.sendBytes(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        budgeted.relay();
+
+        // Assert
+        verify(outboxEventRepository, times(1)).lockNextBatch(2);
+        assertEquals(1L, budgeted.stats().get("batch_count"));
+    }
+
+    @Test
+    void meters_ShouldExposeTheBacklogFromTheTable_AndRecordRelayedEvents() {
+        // Arrange
+        when(outboxEventRepository.count()).thenReturn(7L);
+        when(outboxEventRepository.findOldestCreatedAt()).thenReturn(Instant.now().minusSeconds(60));
+        when(outboxEventRepository.lockNextBatch(2)).thenReturn(List.of(event(1L)));
+        when(kafkaProducerService.sendBytes(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        assertEquals(7.0, meterRegistry.get("outbox.pending").gauge().value());
+        assertTrue(meterRegistry.get("outbox.oldest.pending.age").gauge().value() >= 60.0);
+        assertEquals(1.0, meterRegistry.get("outbox.relayed").counter().count());
+        assertEquals(1L, meterRegistry.get("outbox.relay.lag").timer().count());
+    }
+
+    private OutboxRelay relay(int batchSize, Duration sendTimeout) {
+        return relay(batchSize, sendTimeout, Duration.ofSeconds(5));
+    }
+
+    private OutboxRelay relay(int batchSize, Duration sendTimeout, Duration drainBudget) {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        return new OutboxRelay(outboxEventRepository, kafkaProducerService, transactionTemplate, true, true,
+                batchSize, sendTimeout, drainBudget, new SimpleMeterRegistry());
+    }
+
+    private static OutboxEvent event(long id) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setTopic("customer-events");
+        event.setEventKey(String.valueOf(id));
+        event.setPayload(payload(id));
+        event.setCreatedAt(Instant.now());
+        return event;
+    }
+
+    private static byte[] payload(long id) {
+        return ("payload-" + id).getBytes(StandardCharsets.UTF_8);
+    }
+}
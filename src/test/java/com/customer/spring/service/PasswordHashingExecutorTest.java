@@ -0,0 +1,133 @@
+package com.customer.spring.service;
+
+import com.customer.spring.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 3, Duration.ofSeconds(5), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void bounded_ShouldHashAndMatchOnThePool() {
+        // Arrange
+        PasswordEncoder encoder = executor.bounded(new BCryptPasswordEncoder(4));
+
+        // Act
+        String hash = encoder.encode("Secret1!");
+
+        // Assert
+        assertTrue(encoder.matches("Secret1!", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        Map<String, Object> stats = executor.stats();
+        assertEquals(3L, stats.get("hash_count"));
+        assertEquals(0, stats.get("queue_depth"));
+        assertEquals(1L, meterRegistry.get("password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(2L, meterRegistry.get("password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void execute_ShouldRejectImmediately_WhenQueueIsFull() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> executor.execute(() -> {
+                started.countDown();
+                awaitQuietly(release);
+                return null;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> executor.execute(() -> null));
+            while (executor.stats().get("queue_depth").equals(0)) {
+                Thread.sleep(5);
+            }
+
+            // Act & Assert
+            ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+                    () -> executor.execute(() -> null));
+            assertEquals(3, ex.getRetryAfterSeconds());
+            assertEquals(1L, executor.stats().get("rejected_count"));
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    void execute_ShouldGiveUpAndCancel_WhenTheHashDoesNotFinishInTime() throws Exception {
+        // Arrange
+        PasswordHashingExecutor impatient = new PasswordHashingExecutor(1, 1, 3, Duration.ofMillis(100), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        try {
+            // Like a real hash, this task does not stop when its waiting caller gives up and interrupts it.
+            Future<?> blocked = callers.submit(() -> impatient.execute(() -> {
+                started.countDown();
+                while (release.getCount() > 0) {
+                    Thread.onSpinWait();
+                }
+                return null;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Act: this one is queued behind the blocked hash and never starts
+            ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+                    () -> impatient.execute(() -> "hash"));
+
+            // Assert
+            assertEquals(3, ex.getRetryAfterSeconds());
+            ExecutionException blockedEx = assertThrows(ExecutionException.class, () -> blocked.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ServiceOverloadedException.class, blockedEx.getCause());
+            Map<String, Object> stats = impatient.stats();
+            // Both callers gave up: the one whose hash is still running, and the queued one
+            assertEquals(2L, stats.get("timed_out_count"));
+            assertEquals(0, stats.get("queue_depth"));
+            assertEquals(2.0, meterRegistry.get("password.hashing.timed.out").counter().count());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            impatient.shutdown();
+        }
+    }
+
+    @Test
+    void queueCapacity_ShouldDefaultToFourTasksPerThread() {
+        PasswordHashingExecutor sized = new PasswordHashingExecutor(2, 0, 1, Duration.ofSeconds(1), new SimpleMeterRegistry());
+        try {
+            assertEquals(8, sized.stats().get("queue_capacity"));
+        } finally {
+            sized.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.customer.spring.service;
+
+import com.customer.spring.entity.RefreshToken;
+import com.customer.spring.entity.UserPrincipal;
+import com.customer.spring.entity.Users;
+import com.customer.spring.exception.AuthenticationFailedException;
+import com.customer.spring.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private JWTService jwtService;
+    private MyUserDetailsService userDetailsService;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        jwtService = mock(JWTService.class);
+        userDetailsService = mock(MyUserDetailsService.class);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, jwtService, userDetailsService,
+                Duration.ofDays(14));
+
+        Users user = new Users();
+        user.setUsername("john_doe");
+        when(userDetailsService.loadUserByUsername("john_doe")).thenReturn(new UserPrincipal(user));
+        when(jwtService.generateToken(eq("john_doe"), anyCollection())).thenReturn("accessToken");
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyTheHashOfTheToken() {
+        // Act
+        String token = refreshTokenService.issue("john_doe");
+
+        // Assert
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertNotEquals(token, saved.getValue().getTokenHash());
+        assertEquals(64, saved.getValue().getTokenHash().length());
+        assertEquals("john_doe", saved.getValue().getUsername());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(Instant.now().plus(Duration.ofDays(13))));
+    }
+
+    @Test
+    void refresh_ShouldRotateWithinFamily_WithoutPasswordCheck() {
+        // Arrange
+        String token = refreshTokenService.issue("john_doe");
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        RefreshToken stored = saved.getValue();
+        stored.setId(1L);
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(1L)).thenReturn(1);
+
+        // Act
+        RefreshTokenService.TokenPair tokens = refreshTokenService.refresh(token);
+
+        // Assert
+        assertEquals("accessToken", tokens.accessToken());
+        assertNotEquals(token, tokens.refreshToken());
+        verify(jwtService).generateToken("john_doe", List.of("USER"));
+        verify(refreshTokenRepository, times(2)).save(saved.capture());
+        assertEquals(stored.getFamilyId(), saved.getValue().getFamilyId());
+    }
+
+    @Test
+    void refresh_ShouldRevokeFamily_WhenRotatedTokenIsReused() {
+        // Arrange
+        RefreshToken stored = storedToken(Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(1L)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(AuthenticationFailedException.class, () -> refreshTokenService.refresh("reused"));
+        verify(refreshTokenRepository).revokeFamily("family-1");
+        verify(jwtService, never()).generateToken(anyString(), anyCollection());
+    }
+
+    @Test
+    void refresh_ShouldReject_ExpiredOrUnknownTokens() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(anyString()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(storedToken(Instant.now().minusSeconds(1))));
+
+        // Act & Assert
+        assertThrows(AuthenticationFailedException.class, () -> refreshTokenService.refresh("unknown"));
+        assertThrows(AuthenticationFailedException.class, () -> refreshTokenService.refresh("expired"));
+        assertThrows(AuthenticationFailedException.class, () -> refreshTokenService.refresh(" "));
+        verify(refreshTokenRepository, never()).markUsed(anyLong());
+    }
+
+    @Test
+    void revoke_ShouldRevokeFamily_OnlyForTheOwner() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(storedToken(Instant.now().plusSeconds(60))));
+        when(refreshTokenRepository.revokeFamily("family-1")).thenReturn(2);
+
+        // Act & Assert
+        assertFalse(refreshTokenService.revoke("token", "someone_else"));
+        assertTrue(refreshTokenService.revoke("token", "john_doe"));
+        verify(refreshTokenRepository, times(1)).revokeFamily("family-1");
+    }
+
+    private static RefreshToken storedToken(Instant expiresAt) {
+        RefreshToken token = new RefreshToken();
+        token.setId(1L);
+        token.setTokenHash("hash");
+        token.setUsername("john_doe");
+        token.setFamilyId("family-1");
+        token.setExpiresAt(expiresAt);
+        return token;
+    }
+}
@@ -0,0 +1,90 @@
+package com.customer.spring.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationListTest {
+
+    private KafkaProducerService kafkaProducerService;
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        kafkaProducerService = mock(KafkaProducerService.class);
+        revocationList = new TokenRevocationList(kafkaProducerService, Duration.ofMinutes(1), 1024);
+    }
+
+    @Test
+    void revoke_ShouldRejectOnlyTheRevokedToken_AndBroadcast() {
+        // Arrange
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+
+        // Act
+        revocationList.revoke("jti-1", expiration);
+
+        // Assert
+        assertTrue(revocationList.isRevoked(token("jti-1", expiration)));
+        assertFalse(revocationList.isRevoked(token("jti-2", expiration)));
+        verify(kafkaProducerService).broadcast(TokenRevocationList.REVOCATION_TOPIC, "jti-1", "jti-1:" + expiration.getTime());
+    }
+
+    @Test
+    void revoke_ShouldBeExact_WhenBloomFilterIsSaturated() {
+        // Arrange
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        List<String> revoked = IntStream.range(0, 5_000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+        // Act
+        revoked.forEach(id -> revocationList.revoke(id, expiration));
+
+        // Assert
+        revoked.forEach(id -> assertTrue(revocationList.isRevoked(token(id, expiration))));
+        for (int i = 0; i < 5_000; i++) {
+            assertFalse(revocationList.isRevoked(token(UUID.randomUUID().toString(), expiration)));
+        }
+    }
+
+    @Test
+    void onRevocation_ShouldApplyRemoteRevocation_WithoutRebroadcasting() {
+        // Arrange
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+
+        // Act
+        revocationList.onRevocation("remote-jti:" + expiration.getTime());
+
+        // Assert
+        assertTrue(revocationList.isRevoked(token("remote-jti", expiration)));
+        verify(kafkaProducerService, never()).broadcast(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void entries_ShouldDropOff_OnceTokensHaveExpired() throws Exception {
+        // Arrange
+        TokenRevocationList shortBuckets = new TokenRevocationList(kafkaProducerService, Duration.ofMillis(20), 1024);
+        Date expiration = new Date(System.currentTimeMillis() + 30);
+        shortBuckets.revoke("jti-1", expiration);
+        shortBuckets.revoke("already-expired", new Date(System.currentTimeMillis() - 1));
+
+        // Act
+        Thread.sleep(80);
+        shortBuckets.purgeExpired();
+
+        // Assert
+        assertFalse(shortBuckets.isRevoked(token("jti-1", expiration)));
+        verify(kafkaProducerService, times(1)).broadcast(anyString(), anyString(), anyString());
+    }
+
+    private static JWTService.VerifiedToken token(String id, Date expiration) {
+        return new JWTService.VerifiedToken(id, "john_doe", expiration, List.of("USER"));
+    }
+}